@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Manifest;
+import java.util.zip.Deflater;
+import org.jboss.galleon.util.IoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Zip of the fixture server and assembly of a bootable JAR, the server being
+ * zipped inside the JAR.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class AssemblyBenchmark {
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"deflate", "store-archives"})
+    public String compressionPolicy;
+
+    private CompressionPolicy policy;
+    private Path workDir;
+    private Path server;
+    private Path contentDir;
+    private Path jbossModules;
+    private Path jarFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        policy = CompressionPolicy.fromString(compressionPolicy);
+        Path fixture = BenchmarkFixture.getFixtureDir();
+        contentDir = BenchmarkFixture.getContentDir(fixture);
+        workDir = Files.createTempDirectory("wildfly-jar-benchmark");
+        server = workDir.resolve("wildfly");
+        IoUtils.copy(BenchmarkFixture.getServer(fixture), server);
+        jbossModules = server.resolve("jboss-modules.jar");
+        jarFile = workDir.resolve("benchmark.jar");
+        // The server is cleaned up when zipped, all the invocations then zip the same content.
+        try (BootableJarAssembler assembler = new BootableJarAssembler(jarFile)) {
+            assembler.addServer(server);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        IoUtils.recursiveDelete(workDir);
+    }
+
+    @Benchmark
+    public long zipServer() throws Exception {
+        try (BootableJarAssembler assembler = new BootableJarAssembler(jarFile, threads, policy, Deflater.DEFAULT_COMPRESSION)) {
+            assembler.addServer(server);
+        }
+        return Files.size(jarFile);
+    }
+
+    @Benchmark
+    public long assembleJar() throws Exception {
+        try (BootableJarAssembler assembler = new BootableJarAssembler(jarFile, threads, policy, Deflater.DEFAULT_COMPRESSION)) {
+            Manifest manifest = BootableJarAssembler.readManifest(jbossModules);
+            assembler.addManifest(manifest);
+            assembler.addArchive(jbossModules);
+            assembler.addDirectory(contentDir);
+            assembler.addServer(server);
+        }
+        return Files.size(jarFile);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.maven.project.MavenProject;
+import org.jboss.galleon.api.GalleonArtifactCoordinate;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
+import org.jboss.galleon.universe.maven.repo.SimplisticMavenRepoManager;
+
+/**
+ * The fixture shared by the benchmarks: the server provisioned by the module
+ * build and the local Maven repository that contains its artifacts. Nothing
+ * is resolved from a remote repository.
+ */
+final class BenchmarkFixture {
+
+    static final String FIXTURE_PROPERTY = "wildfly.bootable.benchmark.fixture";
+    static final String REPOSITORY_PROPERTY = "wildfly.bootable.benchmark.repository";
+
+    /**
+     * A mojo that resolves the artifacts from the local Maven repository.
+     */
+    static final class LocalMojo extends BuildBootableJarMojo {
+
+        private final MavenRepoManager repository;
+
+        LocalMojo(MavenRepoManager repository) {
+            this.repository = repository;
+            artifactVersions = MavenProjectArtifactVersions.getInstance(new MavenProject());
+        }
+
+        @Override
+        Path resolveMaven(GalleonArtifactCoordinate coordinate) throws MavenUniverseException {
+            MavenArtifact artifact = new MavenArtifact()
+                    .setGroupId(coordinate.getGroupId())
+                    .setArtifactId(coordinate.getArtifactId())
+                    .setVersion(coordinate.getVersion())
+                    .setExtension(coordinate.getExtension())
+                    .setClassifier(coordinate.getClassifier());
+            repository.resolve(artifact);
+            return artifact.getPath();
+        }
+    }
+
+    private BenchmarkFixture() {
+    }
+
+    static Path getFixtureDir() {
+        String dir = System.getProperty(FIXTURE_PROPERTY);
+        if (dir == null) {
+            throw new IllegalStateException("The " + FIXTURE_PROPERTY + " system property is not set");
+        }
+        Path fixture = Paths.get(dir);
+        if (!Files.exists(getServer(fixture))) {
+            throw new IllegalStateException("No server in " + fixture + ", build the benchmarks module with -Dskip.perf.tests=false");
+        }
+        return fixture;
+    }
+
+    static Path getServer(Path fixture) {
+        return fixture.resolve("wildfly");
+    }
+
+    static Path getContentDir(Path fixture) {
+        return fixture.resolve("jar-content");
+    }
+
+    static Path getProvisioningFile(Path fixture) {
+        return getContentDir(fixture).resolve("provisioning.xml");
+    }
+
+    static MavenRepoManager getRepository() {
+        String repository = System.getProperty(REPOSITORY_PROPERTY);
+        Path path = repository == null ? Paths.get(System.getProperty("user.home"), ".m2", "repository") : Paths.get(repository);
+        return SimplisticMavenRepoManager.getInstance(path);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.plugins.bootablejar.maven.common.Utils;
+
+/**
+ * Parsing of the CLI script expressions and of the server arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+
+    @Param({"${jboss.bind.address:127.0.0.1}",
+        "jdbc:postgresql://${env.DB_HOST,db.host:localhost}:${db.port:5432}/${db.name}",
+        "${a:${b:${c:default}}}"})
+    public String expression;
+
+    @Param({"-b 0.0.0.0 --server-config=standalone-ha.xml",
+        "-Djboss.node.name=\"node 1\" -Dfoo='bar baz' -b=0.0.0.0 -bmanagement=0.0.0.0 --debug 8787"})
+    public String arguments;
+
+    @Benchmark
+    public Collection<Expression> parseExpression() {
+        return Expression.parse(expression);
+    }
+
+    @Benchmark
+    public List<String> splitArguments() {
+        return Utils.splitArguments(arguments);
+    }
+}
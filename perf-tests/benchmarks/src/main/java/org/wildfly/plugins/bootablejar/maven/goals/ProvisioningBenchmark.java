@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.jboss.galleon.api.GalleonBuilder;
+import org.jboss.galleon.api.Provisioning;
+import org.jboss.galleon.api.config.GalleonProvisioningConfig;
+import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scan of the feature-pack module templates and Maven upgrade initialization,
+ * both resolve the feature-packs of the fixture server provisioning. The
+ * provisioning runtime is built once and shared, as done by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ProvisioningBenchmark {
+
+    private Provisioning provisioning;
+    private SharedProvisioningRuntime runtime;
+    private GalleonProvisioningConfig config;
+    private BenchmarkFixture.LocalMojo mojo;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Path provisioningFile = BenchmarkFixture.getProvisioningFile(BenchmarkFixture.getFixtureDir());
+        MavenRepoManager repository = BenchmarkFixture.getRepository();
+        GalleonBuilder builder = new GalleonBuilder();
+        builder.addArtifactResolver(repository);
+        provisioning = builder.newProvisioningBuilder(provisioningFile).build();
+        config = provisioning.loadProvisioningConfig(provisioningFile);
+        runtime = new SharedProvisioningRuntime(provisioning);
+        mojo = new BenchmarkFixture.LocalMojo(repository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (runtime != null) {
+            runtime.close();
+        }
+        if (provisioning != null) {
+            provisioning.close();
+        }
+    }
+
+    @Benchmark
+    public ScannedModules scanProvisionedArtifacts() throws Exception {
+        return ScannedModules.scanProvisionedArtifacts(runtime.getRuntime(config));
+    }
+
+    @Benchmark
+    public MavenUpgrade mavenUpgrade() throws Exception {
+        return new MavenUpgrade(mojo, provisioning, runtime, config);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A sequence of CLI sessions executed in a single embedded server. Each
+ * session has its own system properties and expression resolution setting.
+ * The boot logging configuration can be generated once all the sessions have
+ * been executed.
+ */
+public class CLIBatch {
+
+    private static final String SESSION = "session.";
+    private static final String COMMAND = ".command.";
+    private static final String PROPERTY = ".property.";
+    private static final String RESOLVE_EXPRESSION = ".resolve-expression";
+    private static final String BOOT_LOGGING_CONFIG = "boot-logging-config";
+    private static final String ORIGINAL_LOGGING_FILE = "original-logging-file";
+
+    public static class Session {
+
+        private final List<String> commands;
+        private final Properties properties;
+        private final boolean resolveExpression;
+
+        Session(List<String> commands, Properties properties, boolean resolveExpression) {
+            this.commands = commands;
+            this.properties = properties;
+            this.resolveExpression = resolveExpression;
+        }
+
+        public List<String> getCommands() {
+            return commands;
+        }
+
+        public Properties getProperties() {
+            return properties;
+        }
+
+        public boolean isResolveExpression() {
+            return resolveExpression;
+        }
+    }
+
+    private final List<Session> sessions = new ArrayList<>();
+    private boolean bootLoggingConfig;
+    private Path originalLoggingFile;
+
+    /**
+     * Add a session.
+     *
+     * @param commands The CLI commands, without embedded server start and stop.
+     * @param properties System properties set during the session, can be null.
+     * @param resolveExpression True to resolve expressions locally.
+     */
+    public void addSession(List<String> commands, Properties properties, boolean resolveExpression) {
+        sessions.add(new Session(new ArrayList<>(commands), properties == null ? new Properties() : properties,
+                resolveExpression));
+    }
+
+    /**
+     * Generate the boot logging configuration after the sessions.
+     *
+     * @param originalLoggingFile The file to which the server
+     * {@code logging.properties} is copied before being replaced by the
+     * generated one.
+     */
+    public void generateBootLoggingConfig(Path originalLoggingFile) {
+        this.bootLoggingConfig = true;
+        this.originalLoggingFile = originalLoggingFile;
+    }
+
+    public List<Session> getSessions() {
+        return Collections.unmodifiableList(sessions);
+    }
+
+    public boolean isGenerateBootLoggingConfig() {
+        return bootLoggingConfig;
+    }
+
+    public Path getOriginalLoggingFile() {
+        return originalLoggingFile;
+    }
+
+    public boolean isEmpty() {
+        return sessions.isEmpty() && !bootLoggingConfig;
+    }
+
+    void store(Path file) throws IOException {
+        Properties props = new Properties();
+        for (int i = 0; i < sessions.size(); i++) {
+            Session session = sessions.get(i);
+            props.setProperty(SESSION + i + RESOLVE_EXPRESSION, Boolean.toString(session.resolveExpression));
+            for (int j = 0; j < session.commands.size(); j++) {
+                props.setProperty(SESSION + i + COMMAND + j, session.commands.get(j));
+            }
+            for (String key : session.properties.stringPropertyNames()) {
+                props.setProperty(SESSION + i + PROPERTY + key, session.properties.getProperty(key));
+            }
+        }
+        if (bootLoggingConfig) {
+            props.setProperty(BOOT_LOGGING_CONFIG, "true");
+            if (originalLoggingFile != null) {
+                props.setProperty(ORIGINAL_LOGGING_FILE, originalLoggingFile.toString());
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            props.store(out, null);
+        }
+    }
+
+    static CLIBatch load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        CLIBatch batch = new CLIBatch();
+        for (int i = 0; props.containsKey(SESSION + i + RESOLVE_EXPRESSION); i++) {
+            List<String> commands = new ArrayList<>();
+            for (int j = 0; props.containsKey(SESSION + i + COMMAND + j); j++) {
+                commands.add(props.getProperty(SESSION + i + COMMAND + j));
+            }
+            Properties properties = new Properties();
+            String prefix = SESSION + i + PROPERTY;
+            for (String key : props.stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    properties.setProperty(key.substring(prefix.length()), props.getProperty(key));
+                }
+            }
+            batch.addSession(commands, properties, Boolean.parseBoolean(props.getProperty(SESSION + i + RESOLVE_EXPRESSION)));
+        }
+        if (Boolean.parseBoolean(props.getProperty(BOOT_LOGGING_CONFIG))) {
+            String original = props.getProperty(ORIGINAL_LOGGING_FILE);
+            batch.generateBootLoggingConfig(original == null ? null : Paths.get(original));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import org.wildfly.plugin.tools.bootablejar.BootLoggingConfiguration;
+import org.wildfly.plugin.tools.cli.CLIWrapper;
+
+/**
+ * Executes a {@link CLIBatch} in a forked process.
+ */
+public class CLIBatchForkedExecutor {
+
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws Exception {
+        Path jbossHome = Paths.get(args[0]);
+        Path cliOutput = Paths.get(args[1]);
+        Path systemProperties = Paths.get(args[2]);
+        CLIBatch batch = CLIBatch.load(Paths.get(args[3]));
+        Properties properties = new Properties();
+        try (FileInputStream in = new FileInputStream(systemProperties.toFile())) {
+            properties.load(in);
+            for (String key : properties.stringPropertyNames()) {
+                System.setProperty(key, properties.getProperty(key));
+            }
+        }
+        List<CLIBatch.Session> sessions = batch.getSessions();
+        boolean resolveExpression = sessions.isEmpty() || sessions.get(0).isResolveExpression();
+        BootLoggingConfiguration bootLoggingConfiguration = new BootLoggingConfiguration();
+        ClassLoader loader = CLIBatchForkedExecutor.class.getClassLoader();
+        try (CLIWrapper executor = new CLIWrapper(jbossHome, resolveExpression, loader, bootLoggingConfiguration)) {
+            CLIBatchRunner runner = new CLIBatchRunner(jbossHome, executor, resolveExpression,
+                    resolve -> new CLIWrapper(jbossHome, resolve, loader, bootLoggingConfiguration));
+            try {
+                runner.run(batch);
+            } finally {
+                Files.write(cliOutput, runner.getOutput().getBytes(StandardCharsets.UTF_8));
+                runner.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.wildfly.plugin.tools.cli.CLIWrapper;
+
+/**
+ * Execute a {@link CLIBatch} with as few embedded servers as possible.
+ *
+ * The expression resolution is a setting of the CLI command context, the
+ * consecutive sessions that share the same setting are grouped and executed
+ * in a single embedded server, in their order. The boot logging configuration
+ * is generated once all the sessions have been executed.
+ */
+class CLIBatchRunner {
+
+    interface CLIWrapperFactory {
+        CLIWrapper create(boolean resolveExpression) throws Exception;
+    }
+
+    private final Path jbossHome;
+    private final CLIWrapper initialWrapper;
+    private final CLIWrapperFactory factory;
+    private final StringBuilder previousOutput = new StringBuilder();
+    private CLIWrapper wrapper;
+    private boolean resolveExpression;
+
+    CLIBatchRunner(Path jbossHome, CLIWrapper wrapper, boolean resolveExpression, CLIWrapperFactory factory) {
+        this.jbossHome = jbossHome;
+        this.initialWrapper = wrapper;
+        this.wrapper = wrapper;
+        this.resolveExpression = resolveExpression;
+        this.factory = factory;
+    }
+
+    void run(CLIBatch batch) throws Exception {
+        for (List<CLIBatch.Session> group : group(batch.getSessions())) {
+            boolean groupResolveExpression = group.get(0).isResolveExpression();
+            if (groupResolveExpression != resolveExpression) {
+                previousOutput.append(wrapper.getOutput());
+                closeWrapper();
+                wrapper = factory.create(groupResolveExpression);
+                resolveExpression = groupResolveExpression;
+            }
+            wrapper.handle("embed-server --jboss-home=" + jbossHome + " --std-out=discard");
+            for (CLIBatch.Session session : group) {
+                execute(session);
+            }
+            wrapper.handle("stop-embedded-server");
+        }
+        if (batch.isGenerateBootLoggingConfig()) {
+            Path loggingFile = jbossHome.resolve("standalone").resolve("configuration").resolve("logging.properties");
+            if (batch.getOriginalLoggingFile() != null && Files.exists(loggingFile)) {
+                Files.copy(loggingFile, batch.getOriginalLoggingFile(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            wrapper.generateBootLoggingConfig();
+        }
+    }
+
+    /**
+     * Group the consecutive sessions that share the same expression
+     * resolution.
+     */
+    static List<List<CLIBatch.Session>> group(List<CLIBatch.Session> sessions) {
+        List<List<CLIBatch.Session>> groups = new ArrayList<>();
+        List<CLIBatch.Session> current = null;
+        for (CLIBatch.Session session : sessions) {
+            if (current == null || current.get(0).isResolveExpression() != session.isResolveExpression()) {
+                current = new ArrayList<>();
+                groups.add(current);
+            }
+            current.add(session);
+        }
+        return groups;
+    }
+
+    String getOutput() {
+        return previousOutput + wrapper.getOutput();
+    }
+
+    /**
+     * Close the wrappers created by the runner, the initial wrapper is closed
+     * by its owner.
+     */
+    void close() throws Exception {
+        closeWrapper();
+    }
+
+    private void execute(CLIBatch.Session session) throws Exception {
+        Properties properties = session.getProperties();
+        for (String key : properties.stringPropertyNames()) {
+            System.setProperty(key, properties.getProperty(key));
+        }
+        try {
+            for (String command : session.getCommands()) {
+                wrapper.handle(command);
+            }
+        } finally {
+            for (String key : properties.stringPropertyNames()) {
+                System.clearProperty(key);
+            }
+        }
+    }
+
+    private void closeWrapper() throws Exception {
+        if (wrapper != initialWrapper) {
+            wrapper.close();
+        }
+    }
+}
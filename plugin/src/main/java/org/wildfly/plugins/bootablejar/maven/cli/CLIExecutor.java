@@ -31,4 +31,9 @@ public interface CLIExecutor extends AutoCloseable {
     void generateBootLoggingConfig() throws Exception;
 
     void execute(List<String> commands) throws Exception;
+
+    /**
+     * Execute the sessions of a batch in a single embedded server.
+     */
+    void execute(CLIBatch batch) throws Exception;
 }
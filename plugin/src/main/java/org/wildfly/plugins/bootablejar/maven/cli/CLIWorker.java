@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jboss.galleon.util.IoUtils;
+
+/**
+ * A {@link CLIWorkerProcess} reused by all the forked CLI executions that share
+ * the same CLI classpath. Each execution runs in its own class loader, so the
+ * static state of JBoss Modules and of the embedded server doesn't leak from
+ * one execution to the next one. The JVM-wide state (logging, platform
+ * MBeanServer, URL handlers, security and XML providers) is not isolated: a
+ * worker is replaced after {@value #MAX_EXECUTIONS} executions and after a
+ * failed execution.
+ *
+ * Workers are bound to a Maven build, identified by its execution request that
+ * is shared by the sessions of the modules built concurrently. They are
+ * destroyed at the end of the session by {@link CLIWorkerLifecycleParticipant}
+ * when the plugin is declared as an extension, otherwise when another build
+ * requests a worker or when the Maven JVM exits. A worker is only destroyed once
+ * its current execution has completed.
+ */
+final class CLIWorker {
+
+    static final int MAX_EXECUTIONS = 10;
+    private static final long START_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+    private static final int MAX_LOG_LENGTH = 16 * 1024;
+    private static final Map<String, CLIWorker> WORKERS = new HashMap<>();
+    private static boolean shutdownHook;
+    // Weakly referenced, a long-lived JVM can run multiple builds.
+    private static WeakReference<Object> build = new WeakReference<>(null);
+
+    private final Process process;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Path workDir;
+    private final Path log;
+    private int executions;
+    private boolean closed;
+
+    private CLIWorker(Process process, Socket socket, Path workDir, Path log) throws IOException {
+        this.process = process;
+        this.socket = socket;
+        this.in = new DataInputStream(socket.getInputStream());
+        this.out = new DataOutputStream(socket.getOutputStream());
+        this.workDir = workDir;
+        this.log = log;
+    }
+
+    /**
+     * Execute the main method of a forked executor in the worker of a CLI
+     * classpath, it receives the same arguments as when forked by
+     * {@code ForkedCLIUtil}.
+     *
+     * @param currentBuild The Maven execution request of the build.
+     */
+    static void execute(String[] cp, Object currentBuild, Class<?> clazz, Path jbossHome, Path output, String... args)
+            throws Exception {
+        String key = String.join(File.pathSeparator, cp);
+        while (true) {
+            CLIWorker worker = get(key, cp, currentBuild);
+            boolean retire = false;
+            try {
+                synchronized (worker) {
+                    if (worker.closed) {
+                        // Destroyed by another build once retrieved.
+                        continue;
+                    }
+                    worker.executions += 1;
+                    retire = worker.executions >= MAX_EXECUTIONS;
+                    try {
+                        worker.execute(clazz, jbossHome, output, args);
+                    } catch (Exception ex) {
+                        retire = true;
+                        throw ex;
+                    }
+                }
+            } finally {
+                // Outside of the worker lock, workers are locked after the class.
+                if (retire) {
+                    retire(key, worker);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Get the worker for a CLI classpath, starting it if needed. The workers
+     * of a previous build are destroyed.
+     */
+    private static synchronized CLIWorker get(String key, String[] cp, Object currentBuild) throws IOException {
+        if (!shutdownHook) {
+            Runtime.getRuntime().addShutdownHook(new Thread(CLIWorker::shutdownAll, "cli-worker-shutdown"));
+            shutdownHook = true;
+        }
+        if (build.get() != currentBuild) {
+            shutdownAll();
+            build = new WeakReference<>(currentBuild);
+        }
+        CLIWorker worker = WORKERS.get(key);
+        if (worker != null && !worker.process.isAlive()) {
+            WORKERS.remove(key);
+            worker.shutdown();
+            worker = null;
+        }
+        if (worker == null) {
+            worker = start(cp);
+            WORKERS.put(key, worker);
+        }
+        return worker;
+    }
+
+    private static synchronized void retire(String key, CLIWorker worker) {
+        if (WORKERS.get(key) == worker) {
+            WORKERS.remove(key);
+        }
+        worker.shutdown();
+    }
+
+    static synchronized void shutdownAll() {
+        for (CLIWorker worker : WORKERS.values()) {
+            worker.shutdown();
+        }
+        WORKERS.clear();
+    }
+
+    private void execute(Class<?> clazz, Path jbossHome, Path output, String... args) throws Exception {
+        Path systemProperties = Files.createTempFile(workDir, "sysprops", null);
+        long logOffset = Files.size(log);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(systemProperties, StandardCharsets.UTF_8)) {
+                System.getProperties().store(writer, "");
+            }
+            int status;
+            String error;
+            try {
+                out.writeUTF(clazz.getName());
+                out.writeInt(args.length + 3);
+                out.writeUTF(jbossHome.toString());
+                out.writeUTF(output.toString());
+                out.writeUTF(systemProperties.toString());
+                for (String arg : args) {
+                    out.writeUTF(arg);
+                }
+                out.flush();
+                status = in.readInt();
+                error = in.readUTF();
+            } catch (IOException ex) {
+                throw new IOException("CLI worker process failed: " + readLog(logOffset), ex);
+            }
+            if (status != CLIWorkerProcess.OK) {
+                throw new RuntimeException("Error executing CLI: " + error + System.lineSeparator()
+                        + "CLI worker output:" + System.lineSeparator() + readLog(logOffset));
+            }
+        } finally {
+            Files.deleteIfExists(systemProperties);
+        }
+    }
+
+    /**
+     * The output of the worker process since an offset, at most the last
+     * {@value #MAX_LOG_LENGTH} characters.
+     */
+    private String readLog(long offset) {
+        try {
+            byte[] content = Files.readAllBytes(log);
+            int start = (int) Math.min(Math.max(offset, content.length - MAX_LOG_LENGTH), content.length);
+            return new String(content, start, content.length - start, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            return "Can't read the CLI worker output " + log + ": " + ex.getLocalizedMessage();
+        }
+    }
+
+    private static CLIWorker start(String[] cp) throws IOException {
+        Path workDir = Files.createTempDirectory("wfbootablejar-cli-worker");
+        Path portFile = workDir.resolve("port");
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home")).resolve("bin").resolve("java").toString());
+        cmd.add("-server");
+        cmd.add("-cp");
+        cmd.add(buildClassPath(cp));
+        cmd.add(CLIWorkerProcess.class.getName());
+        cmd.add(portFile.toString());
+        Path log = workDir.resolve("worker.log");
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = System.currentTimeMillis() + START_TIMEOUT;
+            while (!Files.exists(portFile)) {
+                if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                    throw new IOException("CLI worker process failed to start: "
+                            + new String(Files.readAllBytes(log), StandardCharsets.UTF_8));
+                }
+                Thread.sleep(20);
+            }
+            int port = Integer.parseInt(new String(Files.readAllBytes(portFile), StandardCharsets.UTF_8).trim());
+            return new CLIWorker(process, new Socket(InetAddress.getLoopbackAddress(), port), workDir, log);
+        } catch (IOException | RuntimeException ex) {
+            process.destroyForcibly();
+            IoUtils.recursiveDelete(workDir);
+            throw ex;
+        } catch (InterruptedException ex) {
+            process.destroyForcibly();
+            IoUtils.recursiveDelete(workDir);
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+    }
+
+    // Waits for the current execution to complete.
+    private synchronized void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            socket.close();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (IOException ex) {
+            process.destroyForcibly();
+        } catch (InterruptedException ex) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        } finally {
+            IoUtils.recursiveDelete(workDir);
+        }
+    }
+
+    // The plugin classes are added to the CLI classpath, as done when forking.
+    private static String buildClassPath(String[] cp) {
+        Set<String> entries = new LinkedHashSet<>();
+        for (String p : cp) {
+            entries.add(p);
+        }
+        String javaHome = Paths.get(System.getProperty("java.home")).toString();
+        Set<String> pluginEntries = new LinkedHashSet<>();
+        collectClassPath(Thread.currentThread().getContextClassLoader(), javaHome, pluginEntries);
+        if (pluginEntries.isEmpty()) {
+            pluginEntries.add(System.getProperty("java.class.path"));
+        }
+        entries.addAll(pluginEntries);
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void collectClassPath(ClassLoader loader, String javaHome, Set<String> entries) {
+        if (loader == null) {
+            return;
+        }
+        collectClassPath(loader.getParent(), javaHome, entries);
+        if (loader instanceof URLClassLoader) {
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    String path = new File(url.toURI()).getAbsolutePath();
+                    if (!path.startsWith(javaHome)) {
+                        entries.add(path);
+                    }
+                } catch (URISyntaxException | IllegalArgumentException ex) {
+                    // Not a file, ignore it.
+                }
+            }
+        }
+    }
+}
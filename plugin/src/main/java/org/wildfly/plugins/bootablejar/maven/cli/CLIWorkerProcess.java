@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A long-lived process that executes the CLI forked executors. It receives
+ * requests from a single {@link CLIWorker} over a loopback socket. Each
+ * request is executed in a new class loader of the process classpath, nothing
+ * loaded by a request is visible to the next ones. The process exits when the
+ * connection is closed, when it has been idle for 10 minutes or when its parent
+ * process exits (its standard input is closed).
+ */
+public class CLIWorkerProcess {
+
+    static final int OK = 0;
+    static final int ERROR = 1;
+    private static final int IDLE_TIMEOUT = 10 * 60 * 1000;
+
+    public static void main(String[] args) throws Exception {
+        Path portFile = Paths.get(args[0]);
+        Thread parentWatcher = new Thread(() -> {
+            try {
+                while (System.in.read() != -1) {
+                    // Ignore any input.
+                }
+            } catch (IOException ex) {
+                // Parent is gone.
+            }
+            System.exit(0);
+        }, "cli-worker-parent-watcher");
+        parentWatcher.setDaemon(true);
+        parentWatcher.start();
+        Socket socket;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Path tmp = portFile.resolveSibling(portFile.getFileName() + ".tmp");
+            Files.write(tmp, Integer.toString(server.getLocalPort()).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, portFile, StandardCopyOption.ATOMIC_MOVE);
+            socket = server.accept();
+        }
+        Properties baseline = (Properties) System.getProperties().clone();
+        URL[] classPath = getClassPath();
+        try (Socket s = socket;
+                DataInputStream in = new DataInputStream(s.getInputStream());
+                DataOutputStream out = new DataOutputStream(s.getOutputStream())) {
+            s.setSoTimeout(IDLE_TIMEOUT);
+            while (true) {
+                String className;
+                String[] mainArgs;
+                try {
+                    className = in.readUTF();
+                    mainArgs = new String[in.readInt()];
+                    for (int i = 0; i < mainArgs.length; i++) {
+                        mainArgs[i] = in.readUTF();
+                    }
+                } catch (EOFException | SocketTimeoutException ex) {
+                    break;
+                }
+                Thread thread = Thread.currentThread();
+                ClassLoader contextLoader = thread.getContextClassLoader();
+                try (URLClassLoader loader = new URLClassLoader(classPath, ClassLoader.getPlatformClassLoader())) {
+                    thread.setContextClassLoader(loader);
+                    Class.forName(className, true, loader).getMethod("main", String[].class).invoke(null, (Object) mainArgs);
+                    out.writeInt(OK);
+                    out.writeUTF("");
+                } catch (Throwable ex) {
+                    Throwable cause = ex instanceof InvocationTargetException ? ex.getCause() : ex;
+                    StringWriter trace = new StringWriter();
+                    cause.printStackTrace(new PrintWriter(trace));
+                    out.writeInt(ERROR);
+                    out.writeUTF(truncate(trace.toString()));
+                } finally {
+                    thread.setContextClassLoader(contextLoader);
+                    resetSystemProperties(baseline);
+                }
+                out.flush();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static URL[] getClassPath() throws MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                urls.add(Paths.get(entry).toUri().toURL());
+            }
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    private static void resetSystemProperties(Properties baseline) {
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (!baseline.containsKey(key)) {
+                System.clearProperty(key);
+            }
+        }
+        for (String key : baseline.stringPropertyNames()) {
+            System.setProperty(key, baseline.getProperty(key));
+        }
+    }
+
+    // writeUTF is limited to 64KB of encoded content.
+    private static String truncate(String value) {
+        return value.length() > 16 * 1024 ? value.substring(0, 16 * 1024) : value;
+    }
+}
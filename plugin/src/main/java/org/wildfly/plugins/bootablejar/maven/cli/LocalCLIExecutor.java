@@ -46,10 +46,17 @@ public class LocalCLIExecutor implements CLIExecutor {
     private final URLClassLoader cliCl;
     private final AbstractBuildBootableJarMojo mojo;
     private final CLIWrapper cliWrapper;
+    private final Path jbossHome;
+    private final boolean resolveExpression;
+    private final BootLoggingConfiguration bootLoggingConfiguration;
+    private CLIBatchRunner batchRunner;
 
     public LocalCLIExecutor(Path jbossHome, List<Path> cliArtifacts,
             AbstractBuildBootableJarMojo mojo, boolean resolveExpression, BootLoggingConfiguration bootLoggingConfiguration) throws Exception {
         this.mojo = mojo;
+        this.jbossHome = jbossHome;
+        this.resolveExpression = resolveExpression;
+        this.bootLoggingConfiguration = bootLoggingConfiguration;
         level = mojo.disableLog();
         final URL[] cp = new URL[cliArtifacts.size()];
         Iterator<Path> it = cliArtifacts.iterator();
@@ -71,11 +78,21 @@ public class LocalCLIExecutor implements CLIExecutor {
 
     @Override
     public String getOutput() {
-        return cliWrapper.getOutput();
+        return batchRunner == null ? cliWrapper.getOutput() : batchRunner.getOutput();
     }
 
     @Override
     public void close() throws Exception {
+        try {
+            if (batchRunner != null) {
+                batchRunner.close();
+            }
+        } finally {
+            closeWrapper();
+        }
+    }
+
+    private void closeWrapper() throws Exception {
         try {
             cliWrapper.close();
         } finally {
@@ -95,6 +112,13 @@ public class LocalCLIExecutor implements CLIExecutor {
         }
     }
 
+    @Override
+    public void execute(CLIBatch batch) throws Exception {
+        batchRunner = new CLIBatchRunner(jbossHome, cliWrapper, resolveExpression,
+                resolve -> new CLIWrapper(jbossHome, resolve, cliCl, bootLoggingConfiguration));
+        batchRunner.run(batch);
+    }
+
     @Override
     public void generateBootLoggingConfig() throws Exception {
         cliWrapper.generateBootLoggingConfig();
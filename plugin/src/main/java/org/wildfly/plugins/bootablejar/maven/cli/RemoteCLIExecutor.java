@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.logging.Level;
 import org.wildfly.plugin.tools.bootablejar.BootLoggingConfiguration;
+import org.wildfly.plugin.tools.cli.CLIForkedBootConfigGenerator;
 import org.wildfly.plugin.tools.cli.ForkedCLIUtil;
 import org.wildfly.plugins.bootablejar.maven.goals.AbstractBuildBootableJarMojo;
 
@@ -39,10 +40,21 @@ public class RemoteCLIExecutor implements CLIExecutor {
     private final Path jbossHome;
     private final String[] cp;
     private final boolean resolveExpression;
+    private final boolean reuseProcess;
 
     public RemoteCLIExecutor(Path jbossHome, List<Path> cliArtifacts,
             AbstractBuildBootableJarMojo mojo, boolean resolveExpression) throws Exception {
+        this(jbossHome, cliArtifacts, mojo, resolveExpression, false);
+    }
+
+    /**
+     * @param reuseProcess True to execute in a CLI worker process shared with
+     * the other executions of the Maven session.
+     */
+    public RemoteCLIExecutor(Path jbossHome, List<Path> cliArtifacts,
+            AbstractBuildBootableJarMojo mojo, boolean resolveExpression, boolean reuseProcess) throws Exception {
         this.jbossHome = jbossHome;
+        this.reuseProcess = reuseProcess;
         this.mojo = mojo;
         this.resolveExpression = resolveExpression;
         level = mojo.disableLog();
@@ -97,14 +109,38 @@ public class RemoteCLIExecutor implements CLIExecutor {
         args[0] = script.toString();
         args[1] = Boolean.toString(resolveExpression);
         try {
-            ForkedCLIUtil.fork(cp, CLIForkedExecutor.class, jbossHome, output, args);
+            fork(CLIForkedExecutor.class, args);
         } finally {
             Files.deleteIfExists(script);
         }
     }
 
+    @Override
+    public void execute(CLIBatch batch) throws Exception {
+        Path batchFile = File.createTempFile("cli-batch", null).toPath();
+        Files.deleteIfExists(output);
+        try {
+            batch.store(batchFile);
+            fork(CLIBatchForkedExecutor.class, batchFile.toString());
+        } finally {
+            Files.deleteIfExists(batchFile);
+        }
+    }
+
     @Override
     public void generateBootLoggingConfig() throws Exception {
-        BootLoggingConfiguration.generateBootLoggingConfig(cp,jbossHome, output);
+        if (reuseProcess) {
+            fork(CLIForkedBootConfigGenerator.class);
+        } else {
+            BootLoggingConfiguration.generateBootLoggingConfig(cp,jbossHome, output);
+        }
+    }
+
+    private void fork(Class<?> clazz, String... args) throws Exception {
+        if (reuseProcess) {
+            CLIWorker.execute(cp, mojo.getSession().getRequest(), clazz, jbossHome, output, args);
+        } else {
+            ForkedCLIUtil.fork(cp, clazz, jbossHome, output, args);
+        }
     }
 }
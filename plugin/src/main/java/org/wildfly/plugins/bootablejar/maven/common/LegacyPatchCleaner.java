@@ -24,6 +24,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -68,6 +69,13 @@ public class LegacyPatchCleaner {
     }
 
     private Set<Path> captureModules() throws IOException {
+        return captureModules(modulesDir);
+    }
+
+    /**
+     * The directories of the modules, relative to the modules directory.
+     */
+    static Set<Path> captureModules(Path modulesDir) throws IOException {
         Set<Path> existingModules = new HashSet<>();
         Files.walkFileTree(modulesDir, new SimpleFileVisitor<Path>() {
             @Override
@@ -179,16 +187,8 @@ public class LegacyPatchCleaner {
             }
             // Now that the modules have been deleted we must check if we can delete the parent directories
             for (Path p : existingPatchedModules.keySet()) {
-                Path abs = modulesDir.resolve(p);
-                while (!abs.equals(modulesDir)) {
-                    abs = abs.getParent();
-                    String[] children = abs.toFile().list();
-                    if (children != null && children.length == 0) {
-                        getLog().info(" * " + wildflyDir.relativize(abs));
-                        Files.delete(abs);
-                    } else {
-                        break;
-                    }
+                for (Path deleted : deleteEmptyParents(modulesDir.resolve(p), modulesDir)) {
+                    getLog().info(" * " + wildflyDir.relativize(deleted));
                 }
             }
         }
@@ -221,6 +221,28 @@ public class LegacyPatchCleaner {
         }
     }
 
+    /**
+     * Delete the parent directories of a deleted directory that are empty, up
+     * to the root directory.
+     *
+     * @return The deleted directories.
+     */
+    static List<Path> deleteEmptyParents(Path deleted, Path root) throws IOException {
+        List<Path> parents = new ArrayList<>();
+        Path abs = deleted;
+        while (!abs.equals(root)) {
+            abs = abs.getParent();
+            String[] children = abs.toFile().list();
+            if (children != null && children.length == 0) {
+                parents.add(abs);
+                Files.delete(abs);
+            } else {
+                break;
+            }
+        }
+        return parents;
+    }
+
     private Set<String> getNewRequiredDependencies(Map<Path, Path> existingPatchedModules, Map<String, Map<Path, Path>> newModules) throws Exception {
         Set<String> dependencies = new HashSet<>();
         for (Path path : existingPatchedModules.values()) {
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.common;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.maven.plugin.logging.Log;
+import org.jboss.galleon.util.IoUtils;
+
+/**
+ * Delete the JBoss Modules modules of the base layer that can't be reached.
+ *
+ * The roots of the module graph are the modules used to boot the server, the
+ * product module ({@code bin/product.conf}), the modules of the other layers
+ * and add-ons, the modules referenced from the server configuration
+ * (extensions, drivers, global modules, ..., and the handlers and formatters
+ * of {@code logging.properties}), the modules referenced by the deployments ({@code jboss-deployment-structure.xml} and
+ * {@code Dependencies} manifest entry) and the modules to keep. Subsystems add
+ * dependencies to deployments in code, so the modules that are not private
+ * ({@code jboss.api} property) are roots too: only unreachable private modules
+ * are deleted.
+ */
+public final class ModulePruner {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+    private static final String MAIN = "main";
+    private static final String MODULE = "module";
+    private static final String MODULE_ALIAS = "module-alias";
+    private static final String MODULE_XML = "module.xml";
+    private static final String PRIVATE = "private";
+    private static final String[] BOOT_MODULES = {"org.jboss.as.standalone", "org.wildfly.bootable-jar", "org.jboss.as.cli"};
+    private static final String PRODUCT_MODULE = "org.jboss.as.product";
+    private static final String[] DEPLOYMENT_STRUCTURES = {"META-INF/jboss-deployment-structure.xml",
+        "WEB-INF/jboss-deployment-structure.xml"};
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    private static final class ModuleInfo {
+
+        private final String id;
+        private final Path dir;
+        private final boolean alias;
+        private final List<String> dependencies = new ArrayList<>();
+        private boolean privateApi;
+
+        ModuleInfo(String id, Path dir, boolean alias) {
+            this.id = id;
+            this.dir = dir;
+            this.alias = alias;
+        }
+    }
+
+    private final Path wildflyDir;
+    private final Path modulesDir;
+    private final Path baseDir;
+    private final Collection<String> keep;
+    private final Log log;
+
+    public ModulePruner(Path wildflyDir, Collection<String> keep, Log log) {
+        this.wildflyDir = wildflyDir;
+        modulesDir = wildflyDir.resolve("modules");
+        baseDir = modulesDir.resolve("system").resolve("layers").resolve("base");
+        this.keep = keep;
+        this.log = log;
+    }
+
+    /**
+     * Compute the unreachable modules, write the report and delete the modules
+     * if not a dry run.
+     *
+     * @param report The report file, the unreachable modules and their size.
+     * @return The unreachable modules, sorted by module identifier.
+     */
+    public Map<String, Path> prune(boolean dryRun, Path report) throws IOException, XMLStreamException {
+        if (Files.exists(baseDir.resolve(".overlays"))) {
+            log.warn("The server contains patched modules, JBoss modules are not pruned");
+            return new TreeMap<>();
+        }
+        Map<String, Path> unreachable = getUnreachableModules();
+        long size = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("# " + (dryRun ? "Unreachable JBoss modules, not deleted (dry run)" : "Deleted unreachable JBoss modules"));
+            writer.newLine();
+            for (Map.Entry<String, Path> entry : unreachable.entrySet()) {
+                long moduleSize = size(entry.getValue());
+                size += moduleSize;
+                writer.write(entry.getKey() + " " + wildflyDir.relativize(entry.getValue()).toString().replace('\\', '/')
+                        + " " + moduleSize);
+                writer.newLine();
+            }
+        }
+        log.info((dryRun ? "Dry run, " : "") + unreachable.size() + " unreachable JBoss modules (" + size / 1024 + " KB) "
+                + (dryRun ? "not deleted" : "deleted") + ", report stored in " + report);
+        if (!dryRun) {
+            for (Path dir : unreachable.values()) {
+                IoUtils.recursiveDelete(dir);
+                LegacyPatchCleaner.deleteEmptyParents(dir, baseDir);
+            }
+        }
+        return unreachable;
+    }
+
+    Map<String, Path> getUnreachableModules() throws IOException, XMLStreamException {
+        Map<String, ModuleInfo> modules = new HashMap<>();
+        Set<String> roots = new HashSet<>();
+        for (Path module : LegacyPatchCleaner.captureModules(modulesDir)) {
+            Path dir = modulesDir.resolve(module);
+            ModuleInfo info = readModule(dir.resolve(MODULE_XML), dir);
+            if (info == null) {
+                continue;
+            }
+            modules.put(info.id, info);
+            if (!dir.startsWith(baseDir) || (!info.alias && !info.privateApi)) {
+                roots.add(info.id);
+            }
+        }
+        for (String m : BOOT_MODULES) {
+            roots.add(toId(m, null));
+        }
+        for (String m : keep) {
+            roots.add(toId(m, null));
+        }
+        Path configDir = wildflyDir.resolve("standalone").resolve("configuration");
+        if (Files.exists(configDir)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(configDir, "*.xml")) {
+                for (Path config : stream) {
+                    readConfigReferences(config, roots);
+                }
+            }
+            Path logging = configDir.resolve("logging.properties");
+            if (Files.exists(logging)) {
+                readLoggingReferences(logging, roots);
+            }
+        }
+        Path productConf = wildflyDir.resolve("bin").resolve("product.conf");
+        if (Files.exists(productConf)) {
+            readProductModule(productConf, roots);
+        }
+        for (Path deployment : getDeployments()) {
+            readDeploymentReferences(deployment, roots);
+        }
+        Set<String> reachable = new HashSet<>();
+        Deque<String> toVisit = new ArrayDeque<>(roots);
+        while (!toVisit.isEmpty()) {
+            String id = toVisit.pop();
+            if (!reachable.add(id)) {
+                continue;
+            }
+            ModuleInfo info = modules.get(id);
+            if (info != null) {
+                toVisit.addAll(info.dependencies);
+            }
+        }
+        Map<String, Path> unreachable = new TreeMap<>();
+        for (ModuleInfo info : modules.values()) {
+            if (reachable.contains(info.id)) {
+                continue;
+            }
+            // An alias is kept with its target.
+            if (info.alias && reachable.contains(info.dependencies.get(0))) {
+                continue;
+            }
+            unreachable.put(info.id, info.dir);
+        }
+        return unreachable;
+    }
+
+    private List<Path> getDeployments() throws IOException {
+        List<Path> deployments = new ArrayList<>();
+        Path content = wildflyDir.resolve("standalone").resolve("data").resolve("content");
+        if (Files.exists(content)) {
+            Files.walkFileTree(content, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if ("content".equals(file.getFileName().toString())) {
+                        deployments.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        Path deploymentsDir = wildflyDir.resolve("standalone").resolve("deployments");
+        if (Files.exists(deploymentsDir)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(deploymentsDir)) {
+                for (Path p : stream) {
+                    if (Files.isRegularFile(p) && !p.getFileName().toString().startsWith(".")
+                            && p.getFileName().toString().matches(".*\\.[ejrsw]ar")) {
+                        deployments.add(p);
+                    }
+                }
+            }
+        }
+        return deployments;
+    }
+
+    private static ModuleInfo readModule(Path moduleXml, Path dir) throws IOException, XMLStreamException {
+        try (InputStream in = Files.newInputStream(moduleXml)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                ModuleInfo info = null;
+                int depth = 0;
+                boolean dependencies = false;
+                boolean properties = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth += 1;
+                        String name = reader.getLocalName();
+                        if (depth == 1) {
+                            if (MODULE.equals(name)) {
+                                info = new ModuleInfo(toId(reader.getAttributeValue(null, "name"),
+                                        reader.getAttributeValue(null, "slot")), dir, false);
+                            } else if (MODULE_ALIAS.equals(name)) {
+                                info = new ModuleInfo(toId(reader.getAttributeValue(null, "name"),
+                                        reader.getAttributeValue(null, "slot")), dir, true);
+                                info.dependencies.add(toId(reader.getAttributeValue(null, "target-name"),
+                                        reader.getAttributeValue(null, "target-slot")));
+                                return info;
+                            } else {
+                                return null;
+                            }
+                        } else if (depth == 2) {
+                            dependencies = "dependencies".equals(name);
+                            properties = "properties".equals(name);
+                        } else if (depth == 3 && dependencies && MODULE.equals(name)) {
+                            // Optional dependencies are followed, they are used when present.
+                            info.dependencies.add(toId(reader.getAttributeValue(null, "name"),
+                                    reader.getAttributeValue(null, "slot")));
+                        } else if (depth == 3 && properties && "property".equals(name)
+                                && "jboss.api".equals(reader.getAttributeValue(null, "name"))) {
+                            info.privateApi = PRIVATE.equals(reader.getAttributeValue(null, "value"));
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth -= 1;
+                    }
+                }
+                return info;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * The {@code module} attributes (extensions, drivers, handlers, ...) and
+     * the {@code module} elements (global modules, ...) of a configuration.
+     */
+    static void readConfigReferences(Path config, Set<String> roots) throws IOException, XMLStreamException {
+        try (InputStream in = Files.newInputStream(config)) {
+            readReferences(in, roots, false);
+        }
+    }
+
+    private static void readReferences(InputStream in, Set<String> roots, boolean deployment) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+        try {
+            int exclusions = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("exclusions".equals(name)) {
+                        exclusions += 1;
+                    } else if (exclusions == 0 && MODULE.equals(name) && reader.getAttributeValue(null, "name") != null) {
+                        roots.add(toId(reader.getAttributeValue(null, "name"), reader.getAttributeValue(null, "slot")));
+                    }
+                    if (!deployment) {
+                        String module = reader.getAttributeValue(null, MODULE);
+                        if (module != null && !module.isEmpty()) {
+                            roots.add(toId(module, reader.getAttributeValue(null, "slot")));
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "exclusions".equals(reader.getLocalName())) {
+                    exclusions -= 1;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * The modules of the handlers, formatters, filters, ... of a logging
+     * configuration, for example {@code handler.FILE.module=org.foo}.
+     */
+    static void readLoggingReferences(Path logging, Set<String> roots) throws IOException {
+        for (Map.Entry<Object, Object> entry : loadProperties(logging).entrySet()) {
+            String key = (String) entry.getKey();
+            String module = ((String) entry.getValue()).trim();
+            if (key.endsWith(".module") && !module.isEmpty()) {
+                roots.add(toId(module, null));
+            }
+        }
+    }
+
+    /**
+     * The product module, its slot is the {@code slot} property of
+     * {@code bin/product.conf}.
+     */
+    static void readProductModule(Path productConf, Set<String> roots) throws IOException {
+        String slot = loadProperties(productConf).getProperty("slot");
+        if (slot != null && !slot.trim().isEmpty()) {
+            roots.add(toId(PRODUCT_MODULE, slot.trim()));
+        }
+    }
+
+    private static Properties loadProperties(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    /**
+     * The modules referenced by a deployment archive and by the archives it
+     * contains.
+     */
+    static void readDeploymentReferences(Path deployment, Set<String> roots) throws IOException, XMLStreamException {
+        try (InputStream in = Files.newInputStream(deployment)) {
+            readDeploymentReferences(new ZipInputStream(in), roots, true);
+        }
+    }
+
+    private static void readDeploymentReferences(ZipInputStream zip, Set<String> roots, boolean nested)
+            throws IOException, XMLStreamException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            if (name.equals(DEPLOYMENT_STRUCTURES[0]) || name.equals(DEPLOYMENT_STRUCTURES[1])) {
+                // The XML parser closes its input once the document is read.
+                readReferences(new NonClosingInputStream(zip), roots, true);
+            } else if (name.equals(MANIFEST)) {
+                readManifestDependencies(new Manifest(zip), roots);
+            } else if (nested && !entry.isDirectory() && name.matches(".*\\.[jrw]ar")) {
+                // Not closed, that would close the enclosing archive.
+                readDeploymentReferences(new ZipInputStream(zip), roots, false);
+            }
+        }
+    }
+
+    // Dependencies: org.foo export services, org.bar:1.0 optional
+    static void readManifestDependencies(Manifest manifest, Set<String> roots) {
+        String dependencies = manifest.getMainAttributes().getValue(new Attributes.Name("Dependencies"));
+        if (dependencies == null) {
+            return;
+        }
+        for (String dependency : dependencies.split(",")) {
+            String[] parts = dependency.trim().split("\\s+");
+            if (!parts[0].isEmpty()) {
+                roots.add(toId(parts[0], null));
+            }
+        }
+    }
+
+    private static String toId(String name, String slot) {
+        if (name == null) {
+            return "";
+        }
+        if (slot == null || slot.isEmpty()) {
+            int i = name.indexOf(':');
+            if (i > 0) {
+                return name;
+            }
+            slot = MAIN;
+        }
+        return name + ":" + slot;
+    }
+
+    private static long size(Path dir) throws IOException {
+        long[] size = new long[1];
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                size[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size[0];
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
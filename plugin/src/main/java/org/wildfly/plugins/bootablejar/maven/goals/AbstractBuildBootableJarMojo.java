@@ -20,7 +20,6 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,12 +35,15 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.Manifest;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,14 +54,18 @@ import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugin.descriptor.PluginDescriptorBuilder;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectHelper;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
 import org.codehaus.plexus.configuration.PlexusConfigurationException;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.repository.RemoteRepository;
@@ -80,15 +86,16 @@ import org.jboss.galleon.universe.maven.MavenArtifact;
 import org.jboss.galleon.universe.maven.MavenUniverseException;
 import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
 import org.jboss.galleon.util.IoUtils;
-import org.jboss.galleon.util.ZipUtils;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.plugin.tools.PluginProgressTracker;
 
+import org.wildfly.plugins.bootablejar.maven.cli.CLIBatch;
 import org.wildfly.plugins.bootablejar.maven.cli.CLIExecutor;
 import org.wildfly.plugins.bootablejar.maven.cli.LocalCLIExecutor;
 import org.wildfly.plugins.bootablejar.maven.cli.RemoteCLIExecutor;
 import org.wildfly.plugins.bootablejar.maven.common.FeaturePack;
 import org.wildfly.plugins.bootablejar.maven.common.MavenRepositoriesEnricher;
+import org.wildfly.plugins.bootablejar.maven.common.ModulePruner;
 import org.wildfly.plugins.bootablejar.maven.common.OverriddenArtifact;
 import org.wildfly.plugins.bootablejar.maven.common.Utils;
 import org.wildfly.plugins.bootablejar.maven.common.Utils.ProvisioningSpecifics;
@@ -112,11 +119,15 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     public static final String STANDALONE_XML = "standalone.xml";
     private static final String SERVER_CONFIG = "--server-config";
     private static final String MAVEN_REPO_PLUGIN_OPTION = "jboss-maven-repo";
+    private static final String MODULE_ARTIFACTS_PLUGIN_OPTION = "bootable-jar-module-artifacts";
+    private static final String MODULE_ARTIFACTS_COPY = "copy";
+    private static final String MODULE_ARTIFACTS_HARD_LINK = "hard-link";
 
     private static final String JBOSS_MAVEN_DIST = "jboss-maven-dist";
     private static final String JBOSS_PROVISIONING_MAVEN_REPO = "jboss-maven-provisioning-repo";
     private static final String MAVEN_REPO_LOCAL = "maven.repo.local";
     private static final String PLUGIN_PROVISIONING_FILE = ".wildfly-jar-plugin-provisioning.xml";
+    private static final String GENERATED_LOGGING_FILE = "wildfly-jar-generated-logging.properties";
 
     @Component
     RepositorySystem repoSystem;
@@ -136,6 +147,9 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     @Parameter(defaultValue = "${session}", readonly = true, required = true)
     MavenSession session;
 
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true, required = true)
+    MojoExecution mojoExecution;
+
     /**
      * Arbitrary Galleon options used when provisioning the server. In case you
      * are building a large amount of bootable JAR in the same maven session, it
@@ -146,6 +160,14 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
      * &lt;plugin-options&gt;<br/>
      * &lt;jboss-fork-embedded&gt;true&lt;/jboss-fork-embedded&gt;<br/>
      * &lt;/plugin-options&gt;
+     * <br/>
+     * The 'bootable-jar-module-artifacts' option is handled by this plugin and
+     * is not passed to Galleon. Set it to 'hard-link' to hard link the JBoss
+     * Modules JAR files between the provisioning cache and the server instead
+     * of copying them ('copy', the default). The files are copied if the file
+     * system doesn't support hard links. The option requires the
+     * {@code provisioning-cache} parameter, it is ignored with a warning when
+     * the provisioning cache is not used.
      */
     @Parameter(alias = "plugin-options", required = false)
     Map<String, String> pluginOptions = Collections.emptyMap();
@@ -164,6 +186,16 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     @Parameter(alias = "log-time", defaultValue = "false")
     boolean logTime;
 
+    /**
+     * Set to true to write the wall-clock and CPU time of each packaging phase (provisioning, CLI executions,
+     * boot logging configuration generation, bootable JAR creation, ...), the peak heap usage and the number of
+     * bytes written in the {@code bootable-jar-build-timings.json} file of the build artifacts directory. The CPU time
+     * is the one of the Maven process, {@code n/a} when the JVM doesn't expose it. The peak heap usage is the one of the
+     * Maven JVM, it includes the modules built in parallel.
+     */
+    @Parameter(alias = "build-timing-report", property = "wildfly.bootable.build.timing.report", defaultValue = "false")
+    boolean buildTimingReport;
+
     /**
      * A list of Galleon layers to provision. Can be used when
      * feature-pack-location or feature-packs are set.
@@ -277,6 +309,26 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     @Parameter(alias = "display-cli-scripts-output")
     boolean displayCliScriptsOutput;
 
+    /**
+     * By default, an embedded server is started to deploy and configure the server, then for each CLI session and
+     * to generate the boot logging configuration. Set to true to execute them in a single process when CLI
+     * executions are forked, and the consecutive CLI sessions that share the same expression resolution setting in a
+     * single embedded server. Each CLI session keeps its properties file.
+     */
+    @Parameter(alias = "coalesce-cli-sessions", property = "wildfly.bootable.coalesce.cli.sessions", defaultValue = "false")
+    boolean coalesceCliSessions;
+
+    /**
+     * When CLI executions are forked (plugin option {@code jboss-fork-embedded}), a new process is started for each
+     * execution. Set to true to execute them in a worker process that is started once per Maven build, each
+     * execution running in its own class loader. JVM-wide state is not isolated, the worker is replaced after 10
+     * executions and after a failed execution. The worker is stopped at the end of the Maven session when the plugin
+     * is declared with {@code <extensions>true</extensions>}, otherwise when Maven exits. An idle worker stops after 10
+     * minutes.
+     */
+    @Parameter(alias = "reuse-cli-process", property = "wildfly.bootable.reuse.cli.process", defaultValue = "false")
+    boolean reuseCliProcess;
+
     /**
      * Overrides the default {@code logging.properties} the container uses when booting.
      * <br/>
@@ -387,6 +439,178 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     @Parameter(alias = "channels", property = "wildfly.channels")
     List<ChannelConfiguration> channels;
 
+    /**
+     * Set to true to keep the channel metadata in a persistent cache: the channel manifests resolved from Maven
+     * coordinates, the versions available for an artifact and the latest version of the manifests without version.
+     * Builds resolving the same artifacts then don't look up the Maven repositories until the entries expire. When
+     * offline, expired entries are used. The released artifacts not found in the channels that have been inspected
+     * to know if they are feature-packs requiring channel resolution are also recorded.
+     */
+    @Parameter(alias = "channel-cache", property = "wildfly.channel.cache", defaultValue = "false")
+    boolean channelCache;
+
+    /**
+     * The time to live in minutes of the channel cache entries.
+     */
+    @Parameter(alias = "channel-cache-ttl", property = "wildfly.channel.cache.ttl", defaultValue = "60")
+    long channelCacheTtl;
+
+    /**
+     * The directory of the channel cache. The cache can be shared between projects.
+     */
+    @Parameter(alias = "channel-cache-dir", property = "wildfly.channel.cache.dir",
+            defaultValue = "${settings.localRepository}/.cache/wildfly-jar-maven-plugin/channels")
+    File channelCacheDir;
+
+    /**
+     * The number of threads used to compress the server archive and the bootable JAR. By default, the number
+     * of available processors is used. Set to 1 to compress in a single thread. The produced JAR doesn't depend
+     * on the number of threads.
+     */
+    @Parameter(alias = "jar-compression-threads", property = "wildfly.bootable.jar.compression.threads", defaultValue = "0")
+    int jarCompressionThreads;
+
+    /**
+     * The policy used to compress the entries of the server archive and of the bootable JAR.
+     * <ul>
+     * <li>{@code deflate}: all entries are deflated.</li>
+     * <li>{@code store-archives}: JAR, zip and war files, already compressed, are stored without compression. Other
+     * entries (XML, properties and class files, ...) are deflated. Packaging is faster and the server archive is faster
+     * to extract when the bootable JAR starts, at the cost of a bigger JAR file.</li>
+     * </ul>
+     */
+    @Parameter(alias = "compression-policy", property = "wildfly.bootable.jar.compression.policy", defaultValue = "deflate")
+    String compressionPolicy;
+
+    /**
+     * The compression level (0-9) of the deflated entries. -1 is the default deflate compression level.
+     */
+    @Parameter(alias = "compression-level", property = "wildfly.bootable.jar.compression.level", defaultValue = "-1")
+    int compressionLevel;
+
+    /**
+     * Timestamp for reproducible output archive entries, either formatted as ISO 8601 extended offset date-time
+     * (e.g. in UTC such as '2011-12-03T10:15:30Z' or with an offset '2019-10-05T20:37:42+02:00'), or as an int
+     * representing seconds since the epoch. When set, all the entries of the bootable JAR and of the server archive
+     * have this time and the manifest attributes are sorted, a server with the same content produces the same JAR.
+     */
+    @Parameter(alias = "output-timestamp", defaultValue = "${project.build.outputTimestamp}")
+    String outputTimestamp;
+
+    /**
+     * Set to true to reuse a previously provisioned server when the provisioning inputs are unchanged. The cache
+     * is keyed by the effective Galleon provisioning configuration (feature-packs, layers, excluded layers, plugin
+     * options, overridden artifacts), the content of the feature-packs referenced by path and the plugin version.
+     * The cache is not used when provisioning with channels,
+     * when a feature-pack has no version or a SNAPSHOT version, or when building a slim server.
+     */
+    @Parameter(alias = "provisioning-cache", property = "wildfly.bootable.provisioning.cache", defaultValue = "false")
+    boolean provisioningCache;
+
+    /**
+     * The directory of the provisioning cache. Can be set to a directory shared between projects.
+     */
+    @Parameter(alias = "provisioning-cache-dir", property = "wildfly.bootable.provisioning.cache.dir",
+            defaultValue = "${project.build.directory}/bootable-jar-provisioning-cache")
+    File provisioningCacheDir;
+
+    /**
+     * Set to true to resolve the artifacts of the server before provisioning. The artifacts missing from the local
+     * Maven repository are downloaded concurrently in a single batch instead of one by one during provisioning. A
+     * summary of the artifacts found locally and downloaded is logged. When provisioning with channels, the artifacts
+     * of the server modules are resolved in a single batch through the channels, the other artifacts are not prefetched
+     * so that they are not recorded in the installation manifest. Not used when offline.
+     */
+    @Parameter(alias = "artifact-prefetch", property = "wildfly.bootable.artifact.prefetch", defaultValue = "false")
+    boolean artifactPrefetch;
+
+    /**
+     * The number of concurrent downloads when prefetching the artifacts of the server.
+     */
+    @Parameter(alias = "artifact-prefetch-threads", property = "wildfly.bootable.artifact.prefetch.threads", defaultValue = "8")
+    int artifactPrefetchThreads;
+
+    /**
+     * Set to true to keep the artifacts scanned from the feature-packs in a persistent index. Entries are keyed by
+     * the Galleon provisioning configuration and the content of the feature-pack files, the module templates and
+     * feature-pack tasks are then only scanned once for a given set of feature-packs. The index is not used when
+     * provisioning with channels.
+     */
+    @Parameter(alias = "scan-index", property = "wildfly.bootable.scan.index", defaultValue = "false")
+    boolean scanIndex;
+
+    /**
+     * The directory of the scan index. The index can be shared between projects.
+     */
+    @Parameter(alias = "scan-index-dir", property = "wildfly.bootable.scan.index.dir",
+            defaultValue = "${settings.localRepository}/.cache/wildfly-jar-maven-plugin/scan-index")
+    File scanIndexDir;
+
+    /**
+     * Set to true to delete the JBoss modules of the base layer that can't be reached once the server is configured.
+     * The roots are the boot modules, the product module (bin/product.conf), the modules of the other layers, the
+     * modules referenced from the server configuration (extensions, drivers, global modules, ..., handlers and
+     * formatters of logging.properties), the modules referenced by the deployment
+     * (jboss-deployment-structure.xml, Dependencies manifest entry) and the modules that are not private, subsystems
+     * being able to add them to deployments. The deleted modules are listed in the
+     * bootable-jar-pruned-modules.txt file of the build artifacts directory.
+     */
+    @Parameter(alias = "prune-modules", property = "wildfly.bootable.prune.modules", defaultValue = "false")
+    boolean pruneModules;
+
+    /**
+     * Set to true to only report the JBoss modules that prune-modules would delete.
+     */
+    @Parameter(alias = "prune-modules-dry-run", property = "wildfly.bootable.prune.modules.dry.run", defaultValue = "false")
+    boolean pruneModulesDryRun;
+
+    /**
+     * A list of JBoss modules (name or name:slot) to keep when pruning modules, for example modules loaded by name
+     * by the application or referenced from configuration files that are not scanned (the server XML configurations,
+     * logging.properties and bin/product.conf are).
+     */
+    @Parameter(alias = "prune-modules-keep", required = false)
+    List<String> pruneModulesKeep = Collections.emptyList();
+
+    /**
+     * Set to true to report the resolution of the artifacts. The bootable-jar-resolution-report.txt file of the build
+     * artifacts directory lists, the slowest first, the time spent resolving each artifact, its size and if it comes
+     * from the local repository, has been downloaded or, when provisioning with channels, has not been found in the
+     * channels and uses its original version.
+     */
+    @Parameter(alias = "resolution-report", property = "wildfly.bootable.resolution.report", defaultValue = "false")
+    boolean resolutionReport;
+
+    /**
+     * Set to true to report the files of the server that have the same content (JAR files or licenses present in
+     * multiple modules, ...). The groups of identical files are listed in the bootable-jar-duplicate-files.txt file of
+     * the build artifacts directory, the groups wasting the most bytes first.
+     */
+    @Parameter(alias = "duplicate-files-report", property = "wildfly.bootable.duplicate.files.report", defaultValue = "false")
+    boolean duplicateFilesReport;
+
+    /**
+     * By default, the deployment is added with the CLI {@code deploy} command in an embedded server. Set to true to
+     * add it without starting an embedded server: the deployment is copied to the server content repository and
+     * referenced from the {@code standalone.xml} deployments.
+     */
+    @Parameter(alias = "offline-deployment", property = "wildfly.bootable.offline.deployment", defaultValue = "false")
+    boolean offlineDeployment;
+
+    /**
+     * Set to true to only replace the deployment when the deployment is the only build input that changed since
+     * the previous build. The server provisioned and configured by the previous build is reused, the deployment
+     * content is replaced in the server and the bootable JAR is re-packaged. Provisioning, CLI scripts execution
+     * and boot logging generation are skipped.
+     * The plugin configuration, the project dependencies, the plugin version and the content of the files
+     * referenced from the configuration (provisioning file, CLI scripts and properties files, extra server content
+     * directories, boot logging configuration) are compared with the previous build. Environment variables and
+     * system properties resolved by CLI scripts are not compared. The fast rebuild is not used when provisioning with
+     * channels or when a feature-pack has no version or a SNAPSHOT version.
+     */
+    @Parameter(alias = "deployment-fast-rebuild", property = "wildfly.bootable.deployment.fast.rebuild", defaultValue = "false")
+    boolean deploymentFastRebuild;
+
     MavenProjectArtifactVersions artifactVersions;
 
     private final BootLoggingConfiguration bootLoggingConfiguration = new BootLoggingConfiguration();
@@ -396,30 +620,38 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     private Path wildflyDir;
 
     private MavenRepoManager artifactResolver;
+    private ChannelMavenArtifactRepositoryManager channelResolver;
+    private ResolutionMetrics resolutionMetrics;
 
     private boolean forkCli;
+    private boolean linkModuleArtifacts;
     private ScannedArtifacts scannedArtifacts;
 
+    private boolean releaseFeaturePacks;
+
+    private BuildTimings timings = BuildTimings.disabled();
+
     public Path getJBossHome() {
         return wildflyDir;
     }
 
+    public MavenSession getSession() {
+        return session;
+    }
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
-
-        MavenRepositoriesEnricher.enrich(session, project, repositories);
-        if (isChannelsProvisioning()) {
-            try {
-                artifactResolver = new ChannelMavenArtifactRepositoryManager(channels,
-                        repoSystem, repoSession, repositories,
-                        getLog(), offline);
-            } catch (MalformedURLException | UnresolvedMavenArtifactException ex) {
-                throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
-            }
-        } else {
-            artifactResolver = offline ? new MavenArtifactRepositoryManager(repoSystem, repoSession)
-                    : new MavenArtifactRepositoryManager(repoSystem, repoSession, repositories);
+        timings = newBuildTimings();
+        try {
+            doExecute();
+        } finally {
+            writeBuildTimings();
         }
+    }
+
+    @SuppressWarnings("try")
+    private void doExecute() throws MojoExecutionException, MojoFailureException {
+        initArtifactResolver();
         if (outputFileName == null) {
             outputFileName = this.project.getBuild().getFinalName() + "-" + BootableJarSupport.BOOTABLE_SUFFIX + "." + JAR;
         }
@@ -439,10 +671,20 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
             return;
         }
         Path contentRoot = Paths.get(project.getBuild().getDirectory()).resolve(bootableJarBuildArtifacts);
+        Path jarFile = Paths.get(project.getBuild().getDirectory()).resolve(outputFileName);
+        if (deploymentFastRebuild && !hollowJar) {
+            boolean rebuilt;
+            try (BuildTimings.Phase ignored = timings.start("fast-rebuild")) {
+                rebuilt = fastRebuild(contentRoot, jarFile);
+            }
+            if (rebuilt) {
+                attachJar(jarFile);
+                return;
+            }
+        }
         if (Files.exists(contentRoot)) {
             deleteDir(contentRoot);
         }
-        Path jarFile = Paths.get(project.getBuild().getDirectory()).resolve(outputFileName);
         IoUtils.recursiveDelete(contentRoot);
 
         wildflyDir = contentRoot.resolve("wildfly");
@@ -454,10 +696,13 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         } catch (IOException ex) {
             throw new MojoExecutionException("Packaging wildfly failed", ex);
         }
-        try {
+        try (BuildTimings.Phase phase = timings.start("provisioning")) {
             provisionServer(wildflyDir, contentDir.resolve("provisioning.xml"), contentRoot);
-            if (artifactResolver instanceof ChannelMavenArtifactRepositoryManager) {
-                ((ChannelMavenArtifactRepositoryManager) artifactResolver).done(wildflyDir);
+            if (channelResolver != null) {
+                channelResolver.done(wildflyDir);
+            }
+            if (buildTimingReport) {
+                phase.setBytesWritten(BuildTimings.size(wildflyDir));
             }
         } catch (ProvisioningException | IOException | XMLStreamException ex) {
             throw new MojoExecutionException("Provisioning failed", ex);
@@ -470,33 +715,41 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
                 getLog().info("CLI executions are done in forked process");
             }
 
-            copyExtraContentInternal(wildflyDir, contentDir);
-            copyExtraContent(wildflyDir);
+            try (BuildTimings.Phase ignored = timings.start("extra-content")) {
+                copyExtraContentInternal(wildflyDir, contentDir);
+                copyExtraContent(wildflyDir);
+            }
             List<String> commands = new ArrayList<>();
             deploy(commands);
             List<String> serverConfigCommands = new ArrayList<>();
             configureCli(serverConfigCommands);
             commands.addAll(serverConfigCommands);
-            if (!commands.isEmpty()) {
-                executeCliScript(wildflyDir, commands, null, false, "Server configuration", true);
-                if (!serverConfigCommands.isEmpty()) {
-                    // Store generated commands to file in build artifacts.
-                    Path genCliScript = contentRoot.resolve("generated-cli-script.txt");
-                    try (BufferedWriter writer = Files.newBufferedWriter(genCliScript, StandardCharsets.UTF_8)) {
-                        for (String str : serverConfigCommands) {
-                            writer.write(str);
-                            writer.newLine();
-                        }
+            Path loggingFile;
+            if (coalesceCliSessions) {
+                loggingFile = executeCliBatch(wildflyDir, commands, contentRoot);
+            } else {
+                if (!commands.isEmpty()) {
+                    executeCliScript(wildflyDir, commands, null, false, "Server configuration", true);
+                }
+                userScripts(wildflyDir, cliSessions, true);
+                loggingFile = copyLoggingFile(contentRoot);
+                if (bootLoggingConfig == null) {
+                    generateLoggingConfig(wildflyDir);
+                }
+            }
+            if (!serverConfigCommands.isEmpty()) {
+                // Store generated commands to file in build artifacts.
+                Path genCliScript = contentRoot.resolve("generated-cli-script.txt");
+                try (BufferedWriter writer = Files.newBufferedWriter(genCliScript, StandardCharsets.UTF_8)) {
+                    for (String str : serverConfigCommands) {
+                        writer.write(str);
+                        writer.newLine();
                     }
-                    getLog().info("Stored CLI script executed to update server configuration in " + genCliScript + " file.");
                 }
+                getLog().info("Stored CLI script executed to update server configuration in " + genCliScript + " file.");
             }
-            userScripts(wildflyDir, cliSessions, true);
 
-            Path loggingFile = copyLoggingFile(contentRoot);
-            if (bootLoggingConfig == null) {
-                generateLoggingConfig(wildflyDir);
-            } else {
+            if (bootLoggingConfig != null) {
                 // Copy the user overridden logging.properties
                 final Path loggingConfig = resolvePath(bootLoggingConfig.toPath());
                 if (Files.notExists(loggingConfig)) {
@@ -505,9 +758,38 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
                 final Path target = getJBossHome().resolve("standalone").resolve("configuration").resolve("logging.properties");
                 Files.copy(loggingConfig, target, StandardCopyOption.REPLACE_EXISTING);
             }
-            BootableJarSupport.zipServer(wildflyDir, contentDir);
-            buildJar(contentDir, jarFile);
+            if (pruneModules || pruneModulesDryRun) {
+                try (BuildTimings.Phase ignored = timings.start("prune-modules")) {
+                    if (hollowJar) {
+                        getLog().warn("Hollow jar, the modules referenced by deployments are not known when pruning JBoss modules");
+                    }
+                    new ModulePruner(wildflyDir, pruneModulesKeep, getLog()).prune(pruneModulesDryRun,
+                            contentRoot.resolve("bootable-jar-pruned-modules.txt"));
+                }
+            }
+            if (duplicateFilesReport) {
+                try (BuildTimings.Phase ignored = timings.start("duplicate-files")) {
+                    Path report = contentRoot.resolve("bootable-jar-duplicate-files.txt");
+                    List<DuplicateFiles.Group> groups = DuplicateFiles.find(wildflyDir);
+                    long wasted = DuplicateFiles.writeReport(groups, report);
+                    getLog().info(groups.size() + " groups of identical files in the server, " + wasted / 1024
+                            + " KB of copies, report stored in " + report);
+                }
+            }
+            buildJar(wildflyDir, contentDir, jarFile);
             restoreLoggingFile(loggingFile);
+            if (resolutionMetrics != null) {
+                Path report = contentRoot.resolve("bootable-jar-resolution-report.txt");
+                getLog().info(resolutionMetrics.writeReport(report) + ", report stored in " + report);
+            }
+            if (deploymentFastRebuild && !hollowJar) {
+                if (pruneModules && !pruneModulesDryRun) {
+                    // A new deployment could reference a deleted module.
+                    getLog().info("JBoss modules are pruned, the next build can't only re-package the deployment");
+                } else {
+                    recordFastRebuildState(contentRoot);
+                }
+            }
         } catch (Exception ex) {
             if (ex instanceof MojoExecutionException) {
                 throw (MojoExecutionException) ex;
@@ -525,6 +807,67 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         attachJar(jarFile);
     }
 
+    @SuppressWarnings("try")
+    private void initArtifactResolver() throws MojoExecutionException {
+        try (BuildTimings.Phase ignored = timings.start("repositories-enrichment")) {
+            MavenRepositoriesEnricher.enrich(session, project, repositories);
+        }
+        if (isChannelsProvisioning()) {
+            try {
+                channelResolver = new ChannelMavenArtifactRepositoryManager(channels,
+                        repoSystem, repoSession, repositories,
+                        getLog(), offline, channelCache ? channelCacheDir.toPath().resolve("channel-cache.properties") : null,
+                        TimeUnit.MINUTES.toMillis(channelCacheTtl));
+            } catch (MalformedURLException | UnresolvedMavenArtifactException ex) {
+                throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+            }
+            artifactResolver = channelResolver;
+        } else {
+            artifactResolver = offline ? new MavenArtifactRepositoryManager(repoSystem, repoSession)
+                    : new MavenArtifactRepositoryManager(repoSystem, repoSession, repositories);
+        }
+        if (resolutionReport) {
+            resolutionMetrics = ResolutionMetrics.wrap(artifactResolver);
+            artifactResolver = resolutionMetrics;
+        }
+    }
+
+    /**
+     * Provision the server in the work directory and resolve the artifacts
+     * required to build the bootable JAR, without building it.
+     */
+    @SuppressWarnings("try")
+    void resolveServerArtifacts(Path workDir) throws MojoExecutionException {
+        timings = newBuildTimings();
+        try {
+            initArtifactResolver();
+            artifactVersions = MavenProjectArtifactVersions.getInstance(project);
+            wildflyDir = workDir.resolve("wildfly");
+            Path contentDir = workDir.resolve("jar-content");
+            try (BuildTimings.Phase ignored = timings.start("provisioning")) {
+                Files.createDirectories(contentDir);
+                provisionServer(wildflyDir, contentDir.resolve("provisioning.xml"), workDir);
+                if (channelResolver != null) {
+                    channelResolver.done(wildflyDir);
+                }
+            } catch (ProvisioningException | IOException | XMLStreamException ex) {
+                throw new MojoExecutionException("Provisioning failed", ex);
+            }
+            try (BuildTimings.Phase ignored = timings.start("extra-content")) {
+                copyExtraContentInternal(wildflyDir, contentDir);
+            } catch (MojoExecutionException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new MojoExecutionException("Resolving extra content failed", ex);
+            }
+            getCLIArtifacts();
+            resolveArtifact(scannedArtifacts.getBoot());
+            resolveArtifact(scannedArtifacts.getJbossModules());
+        } finally {
+            writeBuildTimings();
+        }
+    }
+
     private boolean isChannelsProvisioning() {
         return channels != null && !channels.isEmpty();
     }
@@ -551,7 +894,7 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         // Replace logging file with original one, keep a copy of the generated one.
         if (Files.exists(originalLoggingFile)) {
             Path configDir = getJBossHome().resolve("standalone").resolve("configuration");
-            Path bootableLoggingFile = configDir.resolve("wildfly-jar-generated-logging.properties");
+            Path bootableLoggingFile = configDir.resolve(GENERATED_LOGGING_FILE);
             final Path loggingFile = configDir.resolve("logging.properties");
             Files.copy(loggingFile, bootableLoggingFile, StandardCopyOption.REPLACE_EXISTING);
             Files.copy(originalLoggingFile, loggingFile, StandardCopyOption.REPLACE_EXISTING);
@@ -627,21 +970,7 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
 
     private void userScripts(Path wildflyDir, List<CliSession> sessions, boolean startEmbedded) throws Exception {
         for (CliSession session : sessions) {
-            List<String> commands = new ArrayList<>();
-            for (String path : session.getScriptFiles()) {
-                File f = new File(path);
-                Path filePath = resolvePath(f.toPath());
-                if (Files.notExists(filePath)) {
-                    throw new RuntimeException("Cli script file " + filePath + " doesn't exist");
-                }
-                try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
-                    String line = reader.readLine();
-                    while (line != null) {
-                        commands.add(line.trim());
-                        line = reader.readLine();
-                    }
-                }
-            }
+            List<String> commands = readScripts(session);
             if(!commands.isEmpty()) {
                 executeCliScript(wildflyDir, commands, session.getPropertiesFile(),
                         session.getResolveExpression(), session.toString(), startEmbedded);
@@ -649,9 +978,81 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         }
     }
 
+    private List<String> readScripts(CliSession session) throws IOException {
+        List<String> commands = new ArrayList<>();
+        for (String path : session.getScriptFiles()) {
+            File f = new File(path);
+            Path filePath = resolvePath(f.toPath());
+            if (Files.notExists(filePath)) {
+                throw new RuntimeException("Cli script file " + filePath + " doesn't exist");
+            }
+            try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
+                String line = reader.readLine();
+                while (line != null) {
+                    commands.add(line.trim());
+                    line = reader.readLine();
+                }
+            }
+        }
+        return commands;
+    }
+
+    // Execute the server configuration, the CLI sessions and the boot logging configuration generation
+    // in a single embedded server. Returns the copy of the original logging.properties file.
+    @SuppressWarnings("try")
+    private Path executeCliBatch(Path jbossHome, List<String> commands, Path contentRoot) throws Exception {
+        CLIBatch batch = new CLIBatch();
+        if (!commands.isEmpty()) {
+            getLog().info("Executing CLI, Server configuration");
+            batch.addSession(commands, null, false);
+        }
+        for (CliSession session : cliSessions) {
+            List<String> sessionCommands = readScripts(session);
+            if (!sessionCommands.isEmpty()) {
+                getLog().info("Executing CLI, " + session);
+                batch.addSession(sessionCommands, session.getPropertiesFile() == null ? null
+                        : readProperties(session.getPropertiesFile()), session.getResolveExpression());
+            }
+        }
+        Path loggingFile = contentRoot.resolve("logging.properties");
+        if (bootLoggingConfig == null) {
+            batch.generateBootLoggingConfig(loggingFile);
+        }
+        if (!batch.isEmpty()) {
+            boolean resolveExpression = batch.getSessions().isEmpty() || batch.getSessions().get(0).isResolveExpression();
+            try (BuildTimings.Phase ignored = timings.start("cli: batch");
+                    CLIExecutor executor = forkCli ? new RemoteCLIExecutor(jbossHome, getCLIArtifacts(), this, resolveExpression, reuseCliProcess)
+                    : new LocalCLIExecutor(jbossHome, getCLIArtifacts(), this, resolveExpression, bootLoggingConfiguration)) {
+                try {
+                    executor.execute(batch);
+                } catch (Exception ex) {
+                    getLog().error("Error executing CLI script " + ex.getLocalizedMessage(), ex);
+                    getLog().error(executor.getOutput());
+                    throw ex;
+                }
+                if (displayCliScriptsOutput) {
+                    getLog().info(executor.getOutput());
+                }
+            }
+            getLog().info("CLI scripts execution done.");
+        }
+        if (bootLoggingConfig != null) {
+            copyLoggingFile(contentRoot);
+        }
+        return loggingFile;
+    }
+
+    @SuppressWarnings("try")
     private void executeCliScript(Path jbossHome, List<String> commands, String propertiesFile,
             boolean resolveExpression, String message, boolean startEmbedded) throws Exception {
         getLog().info("Executing CLI, " + message);
+        try (BuildTimings.Phase ignored = timings.start("cli: " + message)) {
+            executeCliScript(jbossHome, commands, propertiesFile, resolveExpression, startEmbedded);
+        }
+    }
+
+    private void executeCliScript(Path jbossHome, List<String> commands, String propertiesFile,
+            boolean resolveExpression, boolean startEmbedded) throws Exception {
         Properties props = null;
         if (propertiesFile != null) {
             props = loadProperties(propertiesFile);
@@ -667,8 +1068,10 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         }
     }
 
+    @SuppressWarnings("try")
     private void generateLoggingConfig(final Path wildflyDir) throws Exception {
-        try (CLIExecutor cmdCtx = forkCli ? new RemoteCLIExecutor(wildflyDir, getCLIArtifacts(), this, false)
+        try (BuildTimings.Phase ignored = timings.start("boot-logging-config");
+                CLIExecutor cmdCtx = forkCli ? new RemoteCLIExecutor(wildflyDir, getCLIArtifacts(), this, false, reuseCliProcess)
                 : new LocalCLIExecutor(wildflyDir, getCLIArtifacts(), this, false, bootLoggingConfiguration)) {
             try {
                 cmdCtx.generateBootLoggingConfig();
@@ -692,7 +1095,7 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         if (startEmbedded) {
             allCommands.add("stop-embedded-server");
         }
-        try (CLIExecutor executor = forkCli ? new RemoteCLIExecutor(jbossHome, getCLIArtifacts(), this, resolveExpression)
+        try (CLIExecutor executor = forkCli ? new RemoteCLIExecutor(jbossHome, getCLIArtifacts(), this, resolveExpression, reuseCliProcess)
                 : new LocalCLIExecutor(jbossHome, getCLIArtifacts(), this, resolveExpression, bootLoggingConfiguration)) {
 
             try {
@@ -742,6 +1145,14 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     }
 
     private Properties loadProperties(String propertiesFile) throws Exception {
+        final Properties props = readProperties(propertiesFile);
+        for (String key : props.stringPropertyNames()) {
+            WildFlySecurityManager.setPropertyPrivileged(key, props.getProperty(key));
+        }
+        return props;
+    }
+
+    private Properties readProperties(String propertiesFile) throws Exception {
         File f = new File(propertiesFile);
         Path filePath = resolvePath(f.toPath());
         if (Files.notExists(filePath)) {
@@ -755,9 +1166,6 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
             throw new Exception(
                     "Failed to load properties from " + propertiesFile + ": " + e.getLocalizedMessage());
         }
-        for (String key : props.stringPropertyNames()) {
-            WildFlySecurityManager.setPropertyPrivileged(key, props.getProperty(key));
-        }
         return props;
     }
 
@@ -899,6 +1307,18 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         }
 
         private void setupPluginOptions() throws ProvisioningException {
+            // Handled by the plugin, unknown to Galleon.
+            if (pluginOptions.containsKey(MODULE_ARTIFACTS_PLUGIN_OPTION)) {
+                String val = pluginOptions.remove(MODULE_ARTIFACTS_PLUGIN_OPTION);
+                if (MODULE_ARTIFACTS_HARD_LINK.equals(val)) {
+                    linkModuleArtifacts = true;
+                } else if (val == null || MODULE_ARTIFACTS_COPY.equals(val)) {
+                    linkModuleArtifacts = false;
+                } else {
+                    throw new ProvisioningException("Invalid " + MODULE_ARTIFACTS_PLUGIN_OPTION + " plugin option " + val
+                            + ", expecting " + MODULE_ARTIFACTS_COPY + " or " + MODULE_ARTIFACTS_HARD_LINK);
+                }
+            }
             // passive+ in all cases
             // For included default config not based on layers, default packages
             // must be included.
@@ -1119,6 +1539,7 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
 
     protected abstract ConfigId willProvision(ProvisioningSpecifics specifics) throws MojoExecutionException;
 
+    @SuppressWarnings("try")
     private void provisionServer(Path home, Path outputProvisioningFile, Path workDir) throws ProvisioningException,
             MojoExecutionException, IOException, XMLStreamException {
         GalleonBuilder provider = new GalleonBuilder();
@@ -1126,9 +1547,12 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
 
         // Prior to build the config, sub classes could have to inject content to the config according to the
         // provisioned FP.
-        normalizeFeaturePackList();
-        ConfigId defaultConfig = willProvision(featurePacks, provider);
-        GalleonProvisioningConfig config = buildGalleonConfig(provider, defaultConfig);
+        GalleonProvisioningConfig config;
+        try (BuildTimings.Phase ignored = timings.start("galleon-config")) {
+            normalizeFeaturePackList();
+            ConfigId defaultConfig = willProvision(featurePacks, provider);
+            config = buildGalleonConfig(provider, defaultConfig);
+        }
         try (Provisioning pm = provider.newProvisioningBuilder(config)
                 .setInstallationHome(home)
                 .setMessageWriter(new MvnMessageWriter(getLog()))
@@ -1139,37 +1563,198 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
             getLog().info("Building server based on " + config.getFeaturePackDeps() + " galleon feature-packs");
             MavenUpgrade mavenUpgrade = null;
             GalleonProvisioningConfig newConfig;
-            if (isChannelsProvisioning()) {
-                if (!overriddenServerArtifacts.isEmpty()) {
-                    throw new MojoExecutionException("overridden-server-artifacts can't be configured when channels are configured.");
+            ProvisioningCache cache = null;
+            String cacheKey = null;
+            Collection<String> serverArtifacts = null;
+            // The runtime used to scan the modules is reused to scan the artifacts if the upgrade didn't change
+            // the configuration. It is closed before provisioning.
+            try (SharedProvisioningRuntime runtime = new SharedProvisioningRuntime(pm)) {
+                ScanIndex index = null;
+                if (isChannelsProvisioning()) {
+                    if (!overriddenServerArtifacts.isEmpty()) {
+                        throw new MojoExecutionException("overridden-server-artifacts can't be configured when channels are configured.");
+                    }
+                    newConfig = config;
+                } else {
+                    try (BuildTimings.Phase ignored = timings.start("maven-upgrade-init")) {
+                        mavenUpgrade = new MavenUpgrade(this, pm, runtime, config);
+                    }
+                    if (scanIndex) {
+                        index = new ScanIndex(scanIndexDir.toPath(), getLog());
+                        Path originalProvisioningFile = Files.createTempFile(workDir, "original-provisioning", ".xml");
+                        try {
+                            pm.storeProvisioningConfig(config, originalProvisioningFile);
+                            mavenUpgrade.setScanIndex(index, computeScanIndexKey(originalProvisioningFile, mavenUpgrade, "modules"));
+                        } finally {
+                            Files.deleteIfExists(originalProvisioningFile);
+                        }
+                    }
+                    // Dump artifacts
+                    if (dumpOriginalArtifacts) {
+                        Path file = workDir.resolve("bootable-jar-server-original-artifacts.xml");
+                        getLog().info("Dumping original Maven artifacts in " + file);
+                        mavenUpgrade.dumpArtifacts(file);
+                    }
+                    try (BuildTimings.Phase ignored = timings.start("maven-upgrade")) {
+                        newConfig = mavenUpgrade.upgrade();
+                    }
                 }
-                newConfig = config;
-            } else {
-                mavenUpgrade = new MavenUpgrade(this, pm, config);
-                // Dump artifacts
-                if (dumpOriginalArtifacts) {
-                    Path file = workDir.resolve("bootable-jar-server-original-artifacts.xml");
-                    getLog().info("Dumping original Maven artifacts in " + file);
-                    mavenUpgrade.dumpArtifacts(file);
+                // store provisioning.xml
+                pm.storeProvisioningConfig(newConfig, outputProvisioningFile);
+
+                releaseFeaturePacks = hasReleaseFeaturePacks(newConfig);
+                if (isProvisioningCacheEnabled(newConfig)) {
+                    cache = new ProvisioningCache(provisioningCacheDir.toPath(), getLog(), linkModuleArtifacts);
+                    try {
+                        cacheKey = ProvisioningCache.computeKey(outputProvisioningFile, getLocalFeaturePacks(),
+                                retrievePluginVersion(), Boolean.toString(recordState));
+                    } catch (PlexusConfigurationException ex) {
+                        throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+                    }
+                    try (BuildTimings.Phase ignored = timings.start("provisioning-cache-restore")) {
+                        scannedArtifacts = cache.restore(cacheKey, home);
+                    }
+                    if (scannedArtifacts != null) {
+                        debug("%s JBoss Modules JAR files hard linked from the provisioning cache", cache.getLinked());
+                        getLog().info("Provisioning inputs are unchanged, reusing server from provisioning cache " + provisioningCacheDir);
+                        return;
+                    }
+                } else if (linkModuleArtifacts) {
+                    getLog().warn("The " + MODULE_ARTIFACTS_PLUGIN_OPTION + " plugin option is ignored, JBoss Modules JAR "
+                            + "files are only hard linked from the provisioning cache and the cache is not used"
+                            + (provisioningCache ? "" : ", enable the provisioning-cache parameter"));
                 }
-                newConfig = mavenUpgrade.upgrade();
-            }
-            // store provisioning.xml
-            pm.storeProvisioningConfig(newConfig, outputProvisioningFile);
 
-            try {
-                scannedArtifacts = BootableJarSupport.scanArtifacts(pm, newConfig, new MvnMessageWriter(getLog()));
-            } catch (Exception ex) {
-                throw new MojoExecutionException(ex);
+                if (artifactPrefetch && mavenUpgrade == null) {
+                    // No upgrade when provisioning with channels, the artifacts are retrieved from the feature-packs.
+                    try (BuildTimings.Phase ignored = timings.start("scan-modules")) {
+                        serverArtifacts = ScannedModules.scanProvisionedArtifacts(runtime.getRuntime(newConfig))
+                                .getProvisionedArtifacts().values();
+                    }
+                }
+                try (BuildTimings.Phase ignored = timings.start("scan-artifacts")) {
+                    String indexKey = null;
+                    ScannedArtifacts indexed = null;
+                    if (index != null) {
+                        indexKey = computeScanIndexKey(outputProvisioningFile, mavenUpgrade, "artifacts");
+                        indexed = index.readArtifacts(indexKey);
+                    }
+                    if (indexed == null) {
+                        scannedArtifacts = ScannedModules.scanArtifacts(runtime.getRuntime(newConfig),
+                                new MvnMessageWriter(getLog()));
+                        if (index != null) {
+                            index.writeArtifacts(indexKey, scannedArtifacts);
+                        }
+                    } else {
+                        debug("Scanned artifacts read from scan index entry %s", indexKey);
+                        scannedArtifacts = indexed;
+                    }
+                } catch (Exception ex) {
+                    throw new MojoExecutionException(ex);
+                }
+                debug("Provisioning runtimes built before provisioning: %s", runtime.getBuilds());
+            }
+            if (artifactPrefetch) {
+                try (BuildTimings.Phase ignored = timings.start("artifact-prefetch")) {
+                    prefetchArtifacts(mavenUpgrade == null ? serverArtifacts : mavenUpgrade.getServerArtifacts());
+                }
             }
             PluginProgressTracker.initTrackers(pm, new MavenJBossLogger(getLog()));
-            pm.provision(newConfig);
+            try (BuildTimings.Phase ignored = timings.start("provision")) {
+                pm.provision(newConfig);
+            }
 
             if (!recordState) {
                 Path file = home.resolve(PLUGIN_PROVISIONING_FILE);
                 pm.storeProvisioningConfig(newConfig, file);
             }
+            if (cache != null) {
+                try (BuildTimings.Phase ignored = timings.start("provisioning-cache-store")) {
+                    cache.store(cacheKey, home, scannedArtifacts);
+                }
+            }
+        }
+    }
+
+    private void prefetchArtifacts(Collection<String> serverArtifacts) {
+        if (offline || repoSession.isOffline()) {
+            debug("Offline, artifacts are not prefetched");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        if (channelResolver != null) {
+            // The channel session records the resolved streams in the installation manifest of the server, only the
+            // server artifacts are prefetched. The boot, JBoss Modules and CLI artifacts are resolved once the manifest
+            // has been generated.
+            int resolved = channelResolver.prefetch(serverArtifacts, artifactPrefetchThreads);
+            getLog().info("Prefetched " + resolved + " artifacts through channels in " + (System.currentTimeMillis() - start) + "ms");
+            return;
+        }
+        List<String> artifacts = new ArrayList<>(serverArtifacts);
+        artifacts.add(toCoords(scannedArtifacts.getBoot()));
+        artifacts.add(toCoords(scannedArtifacts.getJbossModules()));
+        for (MavenArtifact a : scannedArtifacts.getCliArtifacts()) {
+            artifacts.add(toCoords(a));
+        }
+        ArtifactPrefetch.Summary summary = new ArtifactPrefetch(repoSystem, repoSession, repositories,
+                artifactPrefetchThreads).prefetch(artifacts);
+        getLog().info("Prefetched " + summary + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private static String toCoords(MavenArtifact a) {
+        return a.getGroupId() + ":" + a.getArtifactId() + ":" + a.getVersion() + ":"
+                + (a.getClassifier() == null ? "" : a.getClassifier()) + ":" + (a.getExtension() == null ? "" : a.getExtension());
+    }
+
+    private String computeScanIndexKey(Path provisioningFile, MavenUpgrade mavenUpgrade, String kind)
+            throws MojoExecutionException, IOException {
+        try {
+            return ScanIndex.computeKey(provisioningFile, mavenUpgrade.getFeaturePackFiles(), retrievePluginVersion(), kind);
+        } catch (PlexusConfigurationException ex) {
+            throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+        }
+    }
+
+    private boolean isProvisioningCacheEnabled(GalleonProvisioningConfig config) {
+        if (!provisioningCache || !releaseFeaturePacks) {
+            return false;
+        }
+        if (isChannelsProvisioning()) {
+            getLog().info("Provisioning cache is not used when provisioning with channels");
+            return false;
+        }
+        // A slim server relies on artifacts resolved during provisioning.
+        if (pluginOptions.containsKey("jboss-maven-dist") || pluginOptions.containsKey("jboss-maven-repo")) {
+            getLog().info("Provisioning cache is not used when provisioning a slim server");
+            return false;
+        }
+        return true;
+    }
+
+    // A local feature-pack can be rebuilt without changing its version, its content is part of the cache key.
+    private List<Path> getLocalFeaturePacks() {
+        List<Path> paths = new ArrayList<>();
+        for (FeaturePack fp : featurePacks) {
+            if (fp.getNormalizedPath() != null) {
+                paths.add(fp.getNormalizedPath());
+            }
+        }
+        return paths;
+    }
+
+    // Only released feature-packs always provision the same server.
+    private boolean hasReleaseFeaturePacks(GalleonProvisioningConfig config) {
+        if (isChannelsProvisioning()) {
+            return false;
+        }
+        for (GalleonFeaturePackConfig fp : config.getFeaturePackDeps()) {
+            String build = fp.getLocation().getBuild();
+            if (build == null || build.endsWith("-SNAPSHOT")) {
+                debug("Feature-pack %s has no release version", fp.getLocation());
+                return false;
+            }
         }
+        return true;
     }
 
     // Get Artifact, syntax comply with WildFly feature-pack versions file.
@@ -1209,14 +1794,156 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
             return;
         }
         File f = validateProjectFile();
+        if (offlineDeployment) {
+            try {
+                if (DeploymentContent.deploy(wildflyDir, f.toPath(), f.getName(), getRuntimeName(f))) {
+                    getLog().info("Deployment " + f.getName() + " added to the server configuration");
+                    return;
+                }
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Failed to add deployment " + f.getName(), ex);
+            }
+            getLog().info("Deployment " + f.getName() + " can't be added to the server configuration, deploying it with CLI");
+        }
+        commands.add("deploy " + f.getAbsolutePath() + " --name=" + f.getName() + " --runtime-name=" + getRuntimeName(f));
+    }
 
+    private String getRuntimeName(File f) {
         String runtimeName = f.getName();
         if (project.getPackaging().equals(WAR) || runtimeName.endsWith(WAR)) {
             if (contextRoot) {
                 runtimeName = "ROOT." + WAR;
             }
         }
-        commands.add("deploy " + f.getAbsolutePath() + " --name=" + f.getName() + " --runtime-name=" + runtimeName);
+        return runtimeName;
+    }
+
+    /**
+     * Re-package the server of the previous build with the new deployment.
+     *
+     * @return false if the previous build can't be reused.
+     */
+    private boolean fastRebuild(Path contentRoot, Path jarFile) throws MojoExecutionException {
+        Path stateFile = contentRoot.resolve(FastRebuildState.FILE_NAME);
+        try {
+            FastRebuildState state = FastRebuildState.read(stateFile);
+            if (state == null) {
+                return false;
+            }
+            File deployment = validateProjectFile();
+            if (!state.getFingerprint().equals(computeFastRebuildFingerprint(deployment))) {
+                getLog().info("Build inputs have changed, the server is fully rebuilt");
+                return false;
+            }
+            wildflyDir = contentRoot.resolve("wildfly");
+            // The state is only valid once the new JAR is built.
+            Files.delete(stateFile);
+            String hash = DeploymentContent.replace(wildflyDir, state.getDeploymentName(), state.getDeploymentHash(),
+                    deployment.toPath());
+            if (hash == null) {
+                getLog().info("Deployment not found in the previous build, the server is fully rebuilt");
+                return false;
+            }
+            getLog().info("Only the deployment has changed, re-packaging the server of the previous build");
+            scannedArtifacts = state.getScannedArtifacts();
+            Path loggingFile = copyLoggingFile(contentRoot);
+            Path configDir = wildflyDir.resolve("standalone").resolve("configuration");
+            Path generatedLoggingFile = configDir.resolve(GENERATED_LOGGING_FILE);
+            if (Files.exists(generatedLoggingFile)) {
+                Files.copy(generatedLoggingFile, configDir.resolve("logging.properties"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(jarFile);
+            buildJar(wildflyDir, contentRoot.resolve("jar-content"), jarFile);
+            restoreLoggingFile(loggingFile);
+            new FastRebuildState(state.getFingerprint(), state.getDeploymentName(), hash, scannedArtifacts).write(stateFile);
+            return true;
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Fast rebuild of the bootable JAR failed", ex);
+        }
+    }
+
+    private void recordFastRebuildState(Path contentRoot) throws MojoExecutionException, IOException {
+        if (!releaseFeaturePacks) {
+            return;
+        }
+        File deployment = validateProjectFile();
+        String hash = DeploymentContent.hash(deployment.toPath());
+        if (!DeploymentContent.exists(wildflyDir, hash)) {
+            return;
+        }
+        new FastRebuildState(computeFastRebuildFingerprint(deployment), deployment.getName(), hash, scannedArtifacts)
+                .write(contentRoot.resolve(FastRebuildState.FILE_NAME));
+    }
+
+    private String computeFastRebuildFingerprint(File deployment) throws MojoExecutionException, IOException {
+        List<String> inputs = new ArrayList<>();
+        try {
+            inputs.add(retrievePluginVersion());
+        } catch (PlexusConfigurationException ex) {
+            throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+        }
+        inputs.add(deployment.getName());
+        inputs.add(getRuntimeName(deployment));
+        Xpp3Dom configuration = mojoExecution.getConfiguration();
+        if (configuration != null) {
+            StringBuilder builder = new StringBuilder();
+            appendConfiguration(configuration, new PluginParameterExpressionEvaluator(session, mojoExecution), builder);
+            inputs.add(builder.toString());
+        }
+        List<String> artifacts = new ArrayList<>();
+        for (Artifact a : project.getArtifacts()) {
+            artifacts.add(a.getId());
+        }
+        Collections.sort(artifacts);
+        inputs.addAll(artifacts);
+        List<Path> files = new ArrayList<>();
+        if (provisioningFile != null) {
+            files.add(resolvePath(provisioningFile.toPath()));
+        }
+        for (CliSession cliSession : cliSessions) {
+            for (String path : cliSession.getScriptFiles()) {
+                files.add(resolvePath(Paths.get(path)));
+            }
+            if (cliSession.getPropertiesFile() != null) {
+                files.add(resolvePath(Paths.get(cliSession.getPropertiesFile())));
+            }
+        }
+        for (String path : extraServerContentDirs) {
+            files.add(resolvePath(Paths.get(path)));
+        }
+        if (bootLoggingConfig != null) {
+            files.add(resolvePath(bootLoggingConfig.toPath()));
+        }
+        return FastRebuildState.computeFingerprint(inputs, files);
+    }
+
+    private static void appendConfiguration(Xpp3Dom dom, PluginParameterExpressionEvaluator evaluator,
+            StringBuilder builder) throws MojoExecutionException {
+        builder.append('<').append(dom.getName());
+        String[] attributes = dom.getAttributeNames();
+        Arrays.sort(attributes);
+        for (String attribute : attributes) {
+            builder.append(' ').append(attribute).append('=').append(dom.getAttribute(attribute));
+        }
+        builder.append('>');
+        if (dom.getValue() != null) {
+            Object value;
+            try {
+                value = evaluator.evaluate(dom.getValue());
+            } catch (ExpressionEvaluationException ex) {
+                throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+            }
+            // Only keep simple values, objects (project, session, ...) are not inputs.
+            if (value instanceof String || value instanceof File || value instanceof Number || value instanceof Boolean) {
+                builder.append(value);
+            } else {
+                builder.append(dom.getValue());
+            }
+        }
+        for (Xpp3Dom child : dom.getChildren()) {
+            appendConfiguration(child, evaluator, builder);
+        }
+        builder.append("</").append(dom.getName()).append('>');
     }
 
     private OverriddenArtifact getOverriddenArtifact(String grpId, String artifactId) {
@@ -1230,17 +1957,22 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
         return ret;
     }
 
-    private void buildJar(Path contentDir, Path jarFile) throws MojoExecutionException, IOException {
+    private void buildJar(Path wildflyDir, Path contentDir, Path jarFile) throws MojoExecutionException, IOException {
+        try (BuildTimings.Phase phase = timings.start("bootable-jar")) {
+            buildJarInternal(wildflyDir, contentDir, jarFile);
+            phase.setBytesWritten(Files.size(jarFile));
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void buildJarInternal(Path wildflyDir, Path contentDir, Path jarFile) throws MojoExecutionException, IOException {
         Path rtJarFile = resolveArtifact(scannedArtifacts.getBoot());
         // Check if that is an older server for which we can't upgrade the jboss-modules dependency.
-        Path contentRoot = Paths.get(project.getBuild().getDirectory()).resolve(bootableJarBuildArtifacts);
-        Path tmpDir = contentRoot.resolve("tmp_runtime");
-        Files.createDirectories(tmpDir);
-        ZipUtils.unzip(rtJarFile, tmpDir);
         OverriddenArtifact modules = getOverriddenArtifact(BootableJarSupport.JBOSS_MODULES_GROUP_ID, BootableJarSupport.JBOSS_MODULES_ARTIFACT_ID);
-        Path jbossModulesDependency = tmpDir.resolve("META-INF").resolve("maven").resolve(BootableJarSupport.JBOSS_MODULES_GROUP_ID).
-                resolve(BootableJarSupport.JBOSS_MODULES_ARTIFACT_ID).resolve("pom.xml");
-        if (Files.exists(jbossModulesDependency)) {
+        String jbossModulesDependency = "META-INF/maven/" + BootableJarSupport.JBOSS_MODULES_GROUP_ID + "/"
+                + BootableJarSupport.JBOSS_MODULES_ARTIFACT_ID + "/pom.xml";
+        Path jbossModulesFile = null;
+        if (BootableJarAssembler.hasEntry(rtJarFile, jbossModulesDependency)) {
             if (modules != null) {
                 getLog().warn("Bootable JAR dependency on jboss-modules can't be upgraded, you must use a more recent version of the server.");
             }
@@ -1248,27 +1980,33 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
             if (modules != null) {
                 scannedArtifacts.getJbossModules().setVersion(modules.getVersion());
             }
-            Path jbossModulesFile = resolveArtifact(scannedArtifacts.getJbossModules());
-            ZipUtils.unzip(jbossModulesFile, contentDir);
+            jbossModulesFile = resolveArtifact(scannedArtifacts.getJbossModules());
         }
-        ZipUtils.unzip(rtJarFile, contentDir);
-        updateManifest(contentDir);
-        ZipUtils.zip(contentDir, jarFile);
-    }
-
-    private void updateManifest(Path target) throws IOException {
-        Path targetMetaInf = target.resolve("META-INF");
-        Path targetManifestPath = targetMetaInf.resolve("MANIFEST.MF");
-        boolean updated;
-        Manifest manifest;
-        try (FileInputStream stream = new FileInputStream(targetManifestPath.toFile())) {
-            manifest = new Manifest(stream);
-            updated = updateManifest(manifest);
+        CompressionPolicy policy = CompressionPolicy.fromString(compressionPolicy);
+        if (compressionLevel < -1 || compressionLevel > 9) {
+            throw new MojoExecutionException("Invalid compression level " + compressionLevel + ", expecting a value between -1 and 9");
         }
-        if (updated) {
-            Files.deleteIfExists(targetManifestPath);
-            try (FileOutputStream out = new FileOutputStream(targetManifestPath.toFile())) {
-                manifest.write(out);
+        long timestamp;
+        try {
+            timestamp = BootableJarAssembler.parseOutputTimestamp(outputTimestamp);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+        }
+        // Runtime content overrides JBoss Modules content that overrides the extra content.
+        try (BootableJarAssembler assembler = new BootableJarAssembler(jarFile,
+                jarCompressionThreads > 0 ? jarCompressionThreads : BootableJarAssembler.defaultThreads(),
+                policy, compressionLevel, timestamp)) {
+            Manifest manifest = BootableJarAssembler.readManifest(rtJarFile);
+            if (updateManifest(manifest)) {
+                assembler.addManifest(manifest);
+            }
+            assembler.addArchive(rtJarFile);
+            if (jbossModulesFile != null) {
+                assembler.addArchive(jbossModulesFile);
+            }
+            assembler.addDirectory(contentDir);
+            try (BuildTimings.Phase ignored = timings.start("server-archive")) {
+                assembler.addServer(wildflyDir);
             }
         }
     }
@@ -1306,7 +2044,36 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
     }
 
     private void resolve(MavenArtifact artifact) throws MavenUniverseException, IOException {
-        artifactResolver.resolve(artifact);
+        long start = System.nanoTime();
+        try {
+            artifactResolver.resolve(artifact);
+        } finally {
+            timings.accumulate("artifact-resolution", start);
+        }
+    }
+
+    BuildTimings getBuildTimings() {
+        return timings;
+    }
+
+    // The timings reset the JVM heap peaks, only done when the report is requested.
+    private BuildTimings newBuildTimings() {
+        return buildTimingReport && !isPackageDev() ? new BuildTimings() : BuildTimings.disabled();
+    }
+
+    private void writeBuildTimings() {
+        if (!buildTimingReport || isPackageDev()) {
+            return;
+        }
+        Path contentRoot = Paths.get(project.getBuild().getDirectory()).resolve(bootableJarBuildArtifacts);
+        try {
+            Files.createDirectories(contentRoot);
+            Path file = contentRoot.resolve(BuildTimings.FILE_NAME);
+            timings.write(file, retrievePluginVersion());
+            getLog().info("Build timings written in " + file);
+        } catch (IOException | PlexusConfigurationException | MojoExecutionException ex) {
+            getLog().warn("Failed to write build timings: " + ex.getLocalizedMessage());
+        }
     }
 
     public MavenRepoManager getArtifactResolver() {
@@ -1365,7 +2132,12 @@ public abstract class AbstractBuildBootableJarMojo extends AbstractMojo {
                 .setVersion(coordinate.getVersion())
                 .setExtension(coordinate.getExtension())
                 .setClassifier(coordinate.getClassifier());
-        artifactResolver.resolve(artifact);
+        long start = System.nanoTime();
+        try {
+            artifactResolver.resolve(artifact);
+        } finally {
+            timings.accumulate("artifact-resolution", start);
+        }
         return artifact.getPath();
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+
+/**
+ * Resolve the artifacts of the server before provisioning. The artifacts
+ * missing from the local repository are resolved in a single batch, the
+ * repository connector downloads them concurrently instead of the one by one
+ * resolution done while provisioning.
+ */
+final class ArtifactPrefetch {
+
+    // Number of concurrent downloads of the Maven Resolver basic connector.
+    static final String CONNECTOR_THREADS = "aether.connector.basic.threads";
+    private static final String UNKNOWN = "unknown";
+
+    static final class Summary {
+
+        private final int local;
+        private final int remote;
+        private final int failed;
+
+        Summary(int local, int remote, int failed) {
+            this.local = local;
+            this.remote = remote;
+            this.failed = failed;
+        }
+
+        int getLocal() {
+            return local;
+        }
+
+        int getRemote() {
+            return remote;
+        }
+
+        int getFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return (local + remote + failed) + " artifacts, " + local + " from the local repository, " + remote
+                    + " downloaded, " + failed + " not resolved";
+        }
+    }
+
+    private final RepositorySystem repoSystem;
+    private final RepositorySystemSession repoSession;
+    private final List<RemoteRepository> repositories;
+    private final int threads;
+
+    ArtifactPrefetch(RepositorySystem repoSystem, RepositorySystemSession repoSession,
+            List<RemoteRepository> repositories, int threads) {
+        this.repoSystem = repoSystem;
+        this.repoSession = repoSession;
+        this.repositories = repositories;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Resolve the artifacts. Artifacts that can't be resolved are counted, the
+     * provisioning reports the error if they are actually required.
+     *
+     * @param coords The artifacts, in the
+     * {@code groupId:artifactId:version:classifier:extension} format.
+     */
+    Summary prefetch(Collection<String> coords) {
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        for (String c : coords) {
+            Artifact artifact = toArtifact(c);
+            if (artifact != null) {
+                artifacts.add(artifact);
+            }
+        }
+        LocalRepositoryManager localRepository = repoSession.getLocalRepositoryManager();
+        List<ArtifactRequest> missing = new ArrayList<>();
+        int local = 0;
+        for (Artifact artifact : artifacts) {
+            if (localRepository.find(repoSession, new LocalArtifactRequest(artifact, repositories, null)).isAvailable()) {
+                local += 1;
+            } else {
+                missing.add(new ArtifactRequest(artifact, repositories, null));
+            }
+        }
+        if (missing.isEmpty()) {
+            return new Summary(local, 0, 0);
+        }
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(repoSession);
+        session.setConfigProperty(CONNECTOR_THREADS, threads);
+        List<ArtifactResult> results;
+        try {
+            results = repoSystem.resolveArtifacts(session, missing);
+        } catch (ArtifactResolutionException ex) {
+            results = ex.getResults();
+        }
+        int remote = 0;
+        int failed = 0;
+        for (ArtifactResult result : results) {
+            if (result.isResolved()) {
+                remote += 1;
+            } else {
+                failed += 1;
+            }
+        }
+        return new Summary(local, remote, failed);
+    }
+
+    /**
+     * @return null if the coordinates are not complete or the version is unknown.
+     */
+    static Artifact toArtifact(String coords) {
+        if (coords == null) {
+            return null;
+        }
+        String[] parts = coords.split(":", -1);
+        if (parts.length != 5 || parts[2].isEmpty() || UNKNOWN.equals(parts[2])) {
+            return null;
+        }
+        String extension = parts[4].isEmpty() ? "jar" : parts[4];
+        return new DefaultArtifact(parts[0], parts[1], parts[3], extension, parts[2]);
+    }
+}
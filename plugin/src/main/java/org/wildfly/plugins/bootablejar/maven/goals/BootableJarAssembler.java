@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.jboss.galleon.util.IoUtils;
+
+/**
+ * Assemble the bootable JAR in a single pass. Runtime classes, JBoss Modules
+ * classes, extra content and the server archive are streamed into the JAR
+ * without being extracted or zipped to disk first.
+ *
+ * When the same entry is added more than once, the first one wins. Content
+ * must then be added from the highest to the lowest precedence.
+ *
+ * Entries of the JAR and of the server archive are deflated by a pool of
+ * threads. The produced JAR is the same whatever the number of threads.
+ * The {@link CompressionPolicy} selects the entries that are stored.
+ *
+ * Directories are added in name order. When a timestamp is set, the output is
+ * reproducible: all entries have this timestamp, converted to MS-DOS time in
+ * UTC, and the manifest attributes are sorted. The same content then produces
+ * the same JAR.
+ */
+final class BootableJarAssembler implements Closeable {
+
+    static final String SERVER_ZIP = "wildfly.zip";
+    // The range of the MS-DOS times, as checked by Maven.
+    private static final Instant MIN_TIMESTAMP = Instant.parse("1980-01-01T00:00:02Z");
+    private static final Instant MAX_TIMESTAMP = Instant.parse("2099-12-31T23:59:59Z");
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final CompressionPolicy policy;
+    private final int level;
+    private final long timestamp;
+    private final ParallelZipWriter out;
+    private final Set<String> entries = new HashSet<>();
+
+    BootableJarAssembler(Path jarFile) throws IOException {
+        this(jarFile, 1, CompressionPolicy.DEFLATE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    BootableJarAssembler(Path jarFile, int threads, CompressionPolicy policy, int level) throws IOException {
+        this(jarFile, threads, policy, level, -1);
+    }
+
+    /**
+     * @param jarFile The JAR file to create.
+     * @param threads The number of compression threads, 1 to compress in the
+     * calling thread.
+     * @param policy The policy used to select the entries to store.
+     * @param level The deflate compression level.
+     * @param timestamp The time of all the entries in milliseconds, -1 to keep
+     * the time of the files.
+     */
+    BootableJarAssembler(Path jarFile, int threads, CompressionPolicy policy, int level, long timestamp) throws IOException {
+        this.threads = Math.max(1, threads);
+        this.policy = policy;
+        this.level = level;
+        this.timestamp = timestamp;
+        executor = this.threads > 1 ? Executors.newFixedThreadPool(this.threads, new CompressionThreadFactory()) : null;
+        try {
+            FileChannel channel = FileChannel.open(jarFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            out = newWriter(new ParallelZipWriter(channel, executor, this.threads, policy, level));
+        } catch (IOException ex) {
+            shutdown();
+            throw ex;
+        }
+    }
+
+    /**
+     * The number of compression threads to use when none is configured.
+     */
+    static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Parse a Maven {@code project.build.outputTimestamp}: an ISO 8601 date
+     * time with an offset or a number of seconds since the epoch.
+     *
+     * @return The timestamp in milliseconds, -1 if not set.
+     */
+    static long parseOutputTimestamp(String value) {
+        if (value == null || (value.length() < 2 && !isNumeric(value))) {
+            // Maven uses a single character to disable it in a child project.
+            return -1;
+        }
+        Instant instant;
+        if (isNumeric(value)) {
+            instant = Instant.ofEpochSecond(Long.parseLong(value));
+        } else {
+            try {
+                instant = OffsetDateTime.parse(value).toInstant();
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid project.build.outputTimestamp " + value
+                        + ", expecting an ISO 8601 date time with an offset or a number of seconds since the epoch");
+            }
+        }
+        if (instant.isBefore(MIN_TIMESTAMP) || instant.isAfter(MAX_TIMESTAMP)) {
+            throw new IllegalArgumentException("project.build.outputTimestamp " + value + " is not between "
+                    + MIN_TIMESTAMP + " and " + MAX_TIMESTAMP);
+        }
+        return instant.truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+    }
+
+    private static boolean isNumeric(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean hasEntry(Path archive, String name) throws IOException {
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            return zip.getEntry(name) != null;
+        }
+    }
+
+    static Manifest readManifest(Path archive) throws IOException {
+        try (JarFile jar = new JarFile(archive.toFile())) {
+            Manifest manifest = jar.getManifest();
+            return manifest == null ? new Manifest() : manifest;
+        }
+    }
+
+    void addManifest(Manifest manifest) throws IOException {
+        addDirectoryEntry("META-INF/", -1);
+        if (entries.add(JarFile.MANIFEST_NAME)) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            (timestamp == -1 ? manifest : sort(manifest)).write(content);
+            out.addEntry(JarFile.MANIFEST_NAME, time(System.currentTimeMillis()), content.toByteArray());
+        }
+    }
+
+    /**
+     * Copy the entries of a JAR or zip archive.
+     */
+    void addArchive(Path archive) throws IOException {
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                if (entry.isDirectory()) {
+                    addDirectoryEntry(entry.getName(), time(entry.getTime()));
+                    continue;
+                }
+                if (!entries.add(entry.getName())) {
+                    continue;
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    out.addEntry(entry.getName(), time(entry.getTime()), in.readAllBytes());
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the content of a directory, entries are relative to the directory.
+     */
+    void addDirectory(Path dir) throws IOException {
+        writeTree(out, dir, dir, entries);
+    }
+
+    /**
+     * Add the server as a zip archive nested inside the JAR. The nested zip is
+     * written directly in the JAR entry, closing the nested zip closes the
+     * entry.
+     */
+    void addServer(Path wildflyDir) throws IOException {
+        cleanupServer(wildflyDir);
+        entries.add(SERVER_ZIP);
+        try (ParallelZipWriter server = newWriter(new ParallelZipWriter(out.openEntry(SERVER_ZIP, time(System.currentTimeMillis())),
+                executor, threads, policy, level))) {
+            writeTree(server, wildflyDir, wildflyDir, new HashSet<>());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void addDirectoryEntry(String name, long time) throws IOException {
+        if (entries.add(name)) {
+            out.addDirectory(name, time == -1 ? time(System.currentTimeMillis()) : time);
+        }
+    }
+
+    private ParallelZipWriter newWriter(ParallelZipWriter writer) {
+        if (timestamp != -1) {
+            writer.setTimeZone(ZoneOffset.UTC);
+        }
+        return writer;
+    }
+
+    private long time(long time) {
+        return timestamp == -1 ? time : timestamp;
+    }
+
+    // Manifest-Version first, the other main attributes and the sections in name order.
+    private static Manifest sort(Manifest manifest) {
+        Manifest sorted = new Manifest();
+        Attributes main = manifest.getMainAttributes();
+        Object version = main.get(Attributes.Name.MANIFEST_VERSION);
+        if (version != null) {
+            sorted.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, version);
+        }
+        sortAttributes(main, sorted.getMainAttributes());
+        for (Map.Entry<String, Attributes> section : new TreeMap<>(manifest.getEntries()).entrySet()) {
+            Attributes attributes = new Attributes();
+            sortAttributes(section.getValue(), attributes);
+            sorted.getEntries().put(section.getKey(), attributes);
+        }
+        return sorted;
+    }
+
+    private static void sortAttributes(Attributes attributes, Attributes sorted) {
+        Map<String, Map.Entry<Object, Object>> byName = new TreeMap<>();
+        for (Map.Entry<Object, Object> attribute : attributes.entrySet()) {
+            byName.put(attribute.getKey().toString(), attribute);
+        }
+        for (Map.Entry<Object, Object> attribute : byName.values()) {
+            if (!Attributes.Name.MANIFEST_VERSION.equals(attribute.getKey())) {
+                sorted.put(attribute.getKey(), attribute.getValue());
+            }
+        }
+    }
+
+    // Content that BootableJarSupport.zipServer doesn't package.
+    private static void cleanupServer(Path wildflyDir) throws IOException {
+        Path history = wildflyDir.resolve("standalone").resolve("configuration").resolve("standalone_xml_history");
+        IoUtils.recursiveDelete(history);
+        Files.deleteIfExists(wildflyDir.resolve("README.txt"));
+    }
+
+    // Depth first, directory content in name order.
+    private void writeTree(ParallelZipWriter zip, Path root, Path dir, Set<String> written) throws IOException {
+        List<Path> children;
+        try (Stream<Path> stream = Files.list(dir)) {
+            children = stream.sorted(Comparator.comparing((Path p) -> p.getFileName().toString())).collect(Collectors.toList());
+        }
+        for (Path child : children) {
+            BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attrs.isDirectory()) {
+                String name = toEntryName(root, child) + "/";
+                if (written.add(name)) {
+                    zip.addDirectory(name, time(attrs.lastModifiedTime().toMillis()));
+                }
+                writeTree(zip, root, child, written);
+            } else {
+                String name = toEntryName(root, child);
+                if (written.add(name)) {
+                    zip.addFile(name, time(attrs.lastModifiedTime().toMillis()), child);
+                }
+            }
+        }
+    }
+
+    private static String toEntryName(Path root, Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private static final class CompressionThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "bootable-jar-compression-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Wall-clock and CPU timings of the packaging phases, written as a JSON
+ * report. Phases can be nested, a phase started while another one is running
+ * is recorded with this phase as parent. Operations that occur many times
+ * (e.g. artifact resolution) are accumulated.
+ *
+ * CPU time is the CPU time of the whole Maven process, so it includes the
+ * threads started by a phase. It is reported as {@code n/a} when the JVM
+ * doesn't expose it. The peak heap usage is the one of the JVM, the heap pool
+ * peaks are reset when the timings are created.
+ *
+ * Disabled timings record nothing and don't touch the JVM state.
+ */
+final class BuildTimings {
+
+    static final String FILE_NAME = "bootable-jar-build-timings.json";
+
+    /**
+     * A running phase, recorded when closed.
+     */
+    final class Phase implements AutoCloseable {
+
+        private final String name;
+        private final String parent;
+        private final long start;
+        private final long cpuStart;
+        private long wall = -1;
+        private long cpu;
+        private long bytesWritten = -1;
+
+        private Phase(String name, String parent) {
+            this.name = name;
+            this.parent = parent;
+            this.start = System.nanoTime();
+            this.cpuStart = cpuTime();
+        }
+
+        // Already closed, nothing is recorded.
+        private Phase() {
+            this.name = null;
+            this.parent = null;
+            this.start = 0;
+            this.cpuStart = 0;
+            this.wall = 0;
+        }
+
+        /**
+         * Set the number of bytes written by this phase.
+         */
+        void setBytesWritten(long bytesWritten) {
+            this.bytesWritten = bytesWritten;
+        }
+
+        @Override
+        public void close() {
+            synchronized (BuildTimings.this) {
+                if (wall >= 0) {
+                    return;
+                }
+                wall = System.nanoTime() - start;
+                cpu = cpuStart < 0 ? -1 : cpuTime() - cpuStart;
+                running.remove(this);
+            }
+        }
+    }
+
+    private static final class Cumulative {
+        private long count;
+        private long wall;
+    }
+
+    private final long start = System.nanoTime();
+    private final long cpuStart;
+    private final boolean enabled;
+    private final List<Phase> phases = new ArrayList<>();
+    private final Deque<Phase> running = new ArrayDeque<>();
+    private final Map<String, Cumulative> cumulative = new LinkedHashMap<>();
+
+    BuildTimings() {
+        this(true);
+    }
+
+    private BuildTimings(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            cpuStart = cpuTime();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                    pool.resetPeakUsage();
+                }
+            }
+        } else {
+            cpuStart = -1;
+        }
+    }
+
+    static BuildTimings disabled() {
+        return new BuildTimings(false);
+    }
+
+    synchronized Phase start(String name) {
+        if (!enabled) {
+            return new Phase();
+        }
+        Phase phase = new Phase(name, running.isEmpty() ? null : running.peek().name);
+        phases.add(phase);
+        running.push(phase);
+        return phase;
+    }
+
+    /**
+     * Accumulate the duration of an operation.
+     *
+     * @param name The operation name.
+     * @param startNanos The {@link System#nanoTime()} when the operation started.
+     */
+    synchronized void accumulate(String name, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        Cumulative c = cumulative.computeIfAbsent(name, k -> new Cumulative());
+        c.count += 1;
+        c.wall += System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return The size of the files located in a directory.
+     */
+    static long size(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        if (!Files.isDirectory(path)) {
+            return Files.size(path);
+        }
+        try (Stream<Path> stream = Files.walk(path)) {
+            return stream.filter(Files::isRegularFile).mapToLong(p -> {
+                try {
+                    return Files.size(p);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }).sum();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    synchronized void write(Path file, String pluginVersion) throws IOException {
+        long totalWall = System.nanoTime() - start;
+        long totalCpu = cpuStart < 0 ? -1 : cpuTime() - cpuStart;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        long bytesWritten = 0;
+        for (Phase phase : phases) {
+            if (phase.bytesWritten > 0) {
+                bytesWritten += phase.bytesWritten;
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append("{").append(System.lineSeparator());
+        builder.append("  \"plugin-version\": ").append(quote(pluginVersion)).append(",").append(System.lineSeparator());
+        builder.append("  \"wall-millis\": ").append(millis(totalWall)).append(",").append(System.lineSeparator());
+        builder.append("  \"cpu-millis\": ").append(cpuMillis(totalCpu)).append(",").append(System.lineSeparator());
+        builder.append("  \"peak-heap-bytes\": ").append(peakHeap).append(",").append(System.lineSeparator());
+        builder.append("  \"bytes-written\": ").append(bytesWritten).append(",").append(System.lineSeparator());
+        builder.append("  \"phases\": [");
+        String separator = System.lineSeparator();
+        for (Phase phase : phases) {
+            builder.append(separator).append("    {\"name\": ").append(quote(phase.name));
+            if (phase.parent != null) {
+                builder.append(", \"parent\": ").append(quote(phase.parent));
+            }
+            builder.append(", \"start-millis\": ").append(millis(phase.start - start));
+            if (phase.wall >= 0) {
+                builder.append(", \"wall-millis\": ").append(millis(phase.wall));
+                builder.append(", \"cpu-millis\": ").append(cpuMillis(phase.cpu));
+            } else {
+                builder.append(", \"completed\": false");
+            }
+            if (phase.bytesWritten >= 0) {
+                builder.append(", \"bytes-written\": ").append(phase.bytesWritten);
+            }
+            builder.append("}");
+            separator = "," + System.lineSeparator();
+        }
+        builder.append(System.lineSeparator()).append("  ],").append(System.lineSeparator());
+        builder.append("  \"cumulative\": [");
+        separator = System.lineSeparator();
+        for (Map.Entry<String, Cumulative> entry : cumulative.entrySet()) {
+            builder.append(separator).append("    {\"name\": ").append(quote(entry.getKey()))
+                    .append(", \"count\": ").append(entry.getValue().count)
+                    .append(", \"wall-millis\": ").append(millis(entry.getValue().wall)).append("}");
+            separator = "," + System.lineSeparator();
+        }
+        builder.append(System.lineSeparator()).append("  ]").append(System.lineSeparator());
+        builder.append("}").append(System.lineSeparator());
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static String cpuMillis(long nanos) {
+        return nanos < 0 ? "\"n/a\"" : Long.toString(millis(nanos));
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append("\"").toString();
+    }
+
+    /**
+     * @return The CPU time of the process, -1 if not supported.
+     */
+    private static long cpuTime() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            long time = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+            if (time >= 0) {
+                return time;
+            }
+        }
+        return -1;
+    }
+}
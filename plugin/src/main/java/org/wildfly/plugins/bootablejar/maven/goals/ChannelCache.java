@@ -0,0 +1,321 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.maven.plugin.logging.Log;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ArtifactTransferException;
+import org.wildfly.channel.ChannelMetadataCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+/**
+ * A persistent cache of the channel metadata lookups: the channel manifests
+ * resolved from Maven coordinates, the versions available for an artifact and
+ * the latest and release versions of the manifests without version. Entries
+ * are keyed by the channel repositories and the coordinates, they expire after
+ * the time to live. When offline, expired entries are still used.
+ *
+ * The cache also records if feature-pack artifacts of a release version
+ * require channel resolution. The content of these artifacts doesn't change,
+ * these entries don't expire.
+ *
+ * The artifacts are not cached, they are resolved from the local repository
+ * once their version is known.
+ */
+final class ChannelCache implements MavenVersionsResolver.Factory {
+
+    private static final String MANIFEST = "manifest";
+    private static final String VERSIONS = "versions";
+    private static final String RELEASE = "release";
+    private static final String LATEST = "latest";
+    private static final String FEATURE_PACK = "feature-pack";
+    private static final String SEPARATOR = "|";
+    private static final String TMP_PREFIX = ".tmp-";
+
+    private static final class Entry {
+
+        private final long time;
+        private final String value;
+
+        private Entry(long time, String value) {
+            this.time = time;
+            this.value = value;
+        }
+    }
+
+    private final MavenVersionsResolver.Factory factory;
+    private final Path file;
+    private final long ttl;
+    private final boolean offline;
+    private final Log log;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private volatile boolean modified;
+
+    /**
+     * @param factory The factory of the resolvers used when there is no valid
+     * entry.
+     * @param file The cache file.
+     * @param ttl The time to live of the entries in milliseconds.
+     */
+    ChannelCache(MavenVersionsResolver.Factory factory, Path file, long ttl, boolean offline, Log log) throws IOException {
+        this.factory = factory;
+        this.file = file;
+        this.ttl = ttl;
+        this.offline = offline;
+        this.log = log;
+        load();
+    }
+
+    @Override
+    public MavenVersionsResolver create(Collection<Repository> repositories) {
+        return new CachingResolver(factory.create(repositories), toKey(repositories));
+    }
+
+    @Override
+    public void close() {
+        factory.close();
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @param artifact The artifact, a release version.
+     * @return null if the artifact has not been recorded.
+     */
+    Boolean getRequireChannel(String artifact) {
+        Entry entry = entries.get(FEATURE_PACK + SEPARATOR + artifact);
+        return entry == null ? null : Boolean.valueOf(entry.value);
+    }
+
+    void putRequireChannel(String artifact, boolean requireChannel) {
+        put(FEATURE_PACK + SEPARATOR + artifact, Boolean.toString(requireChannel));
+    }
+
+    /**
+     * Store the cache if new entries have been added. Entries that have expired
+     * are not stored.
+     */
+    void store() throws IOException {
+        if (!modified) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Properties props = new Properties();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (!isExpired(entry.getKey(), entry.getValue(), now)) {
+                props.setProperty(entry.getKey(), entry.getValue().time + SEPARATOR + entry.getValue().value);
+            }
+        }
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(TMP_PREFIX + UUID.randomUUID());
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        modified = false;
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        for (String key : props.stringPropertyNames()) {
+            String value = props.getProperty(key);
+            int i = value.indexOf(SEPARATOR);
+            try {
+                entries.put(key, new Entry(Long.parseLong(value.substring(0, Math.max(i, 0))), value.substring(i + 1)));
+            } catch (NumberFormatException ex) {
+                log.debug("Ignoring invalid channel cache entry " + key);
+            }
+        }
+    }
+
+    private String get(String key, Supplier<String> resolver) {
+        Entry entry = entries.get(key);
+        if (entry != null && (offline || !isExpired(key, entry, System.currentTimeMillis()))) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        String value = resolver.get();
+        // Nothing found could be a transient failure.
+        if (value != null && !value.isEmpty()) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    private boolean isExpired(String key, Entry entry, long now) {
+        return !key.startsWith(FEATURE_PACK + SEPARATOR) && now - entry.time > ttl;
+    }
+
+    private void put(String key, String value) {
+        entries.put(key, new Entry(System.currentTimeMillis(), value));
+        modified = true;
+    }
+
+    private static String toKey(Collection<Repository> repositories) {
+        Set<String> sorted = new TreeSet<>();
+        for (Repository r : repositories) {
+            sorted.add(r.getId() + "=" + r.getUrl());
+        }
+        return String.join(",", sorted);
+    }
+
+    private static String toKey(String kind, String repositories, String... coords) {
+        StringBuilder builder = new StringBuilder(kind).append(SEPARATOR).append(repositories);
+        for (String c : coords) {
+            builder.append(SEPARATOR).append(c == null ? "" : c);
+        }
+        return builder.toString();
+    }
+
+    private final class CachingResolver implements MavenVersionsResolver {
+
+        private final MavenVersionsResolver resolver;
+        private final String repositories;
+
+        private CachingResolver(MavenVersionsResolver resolver, String repositories) {
+            this.resolver = resolver;
+            this.repositories = repositories;
+        }
+
+        @Override
+        public Set<String> getAllVersions(String groupId, String artifactId, String extension, String classifier) {
+            String value = get(toKey(VERSIONS, repositories, groupId, artifactId, extension, classifier),
+                    () -> String.join(",", resolver.getAllVersions(groupId, artifactId, extension, classifier)));
+            return value.isEmpty() ? Collections.emptySet() : new LinkedHashSet<>(Arrays.asList(value.split(",")));
+        }
+
+        @Override
+        public File resolveArtifact(String groupId, String artifactId, String extension, String classifier, String version)
+                throws ArtifactTransferException {
+            return resolver.resolveArtifact(groupId, artifactId, extension, classifier, version);
+        }
+
+        @Override
+        public List<File> resolveArtifacts(List<ArtifactCoordinate> coordinates) throws ArtifactTransferException {
+            return resolver.resolveArtifacts(coordinates);
+        }
+
+        @Override
+        public List<URL> resolveChannelMetadata(List<? extends ChannelMetadataCoordinate> coordinates)
+                throws ArtifactTransferException {
+            List<URL> urls = new ArrayList<>();
+            for (ChannelMetadataCoordinate coordinate : coordinates) {
+                // Manifests without a version are resolved from their latest version.
+                if (coordinate.getUrl() != null || coordinate.getVersion() == null) {
+                    urls.addAll(resolver.resolveChannelMetadata(Collections.singletonList(coordinate)));
+                    continue;
+                }
+                String key = toKey(MANIFEST, repositories, coordinate.getGroupId(), coordinate.getArtifactId(),
+                        coordinate.getVersion(), coordinate.getClassifier(), coordinate.getExtension());
+                Entry entry = entries.get(key);
+                URL cached = entry == null ? null : toLocalFile(entry.value);
+                if (cached != null && (offline || !isExpired(key, entry, System.currentTimeMillis()))) {
+                    hits.incrementAndGet();
+                    urls.add(cached);
+                    continue;
+                }
+                misses.incrementAndGet();
+                List<URL> resolved = resolver.resolveChannelMetadata(Collections.singletonList(coordinate));
+                if (resolved.size() == 1 && toLocalFile(resolved.get(0).toString()) != null) {
+                    put(key, resolved.get(0).toString());
+                }
+                urls.addAll(resolved);
+            }
+            return urls;
+        }
+
+        @Override
+        public String getMetadataReleaseVersion(String groupId, String artifactId) {
+            return get(toKey(RELEASE, repositories, groupId, artifactId),
+                    () -> resolver.getMetadataReleaseVersion(groupId, artifactId));
+        }
+
+        @Override
+        public String getMetadataLatestVersion(String groupId, String artifactId) {
+            return get(toKey(LATEST, repositories, groupId, artifactId),
+                    () -> resolver.getMetadataLatestVersion(groupId, artifactId));
+        }
+
+        @Override
+        public void close() {
+            resolver.close();
+        }
+    }
+
+    // Only manifests in the local repository are cached, null if the file doesn't exist anymore.
+    private static URL toLocalFile(String url) {
+        try {
+            URL u = new URL(url);
+            if (!"file".equals(u.getProtocol()) || !Files.exists(Paths.get(u.toURI()))) {
+                return null;
+            }
+            return u;
+        } catch (MalformedURLException | URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
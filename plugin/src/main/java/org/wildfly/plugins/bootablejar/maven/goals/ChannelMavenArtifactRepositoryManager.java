@@ -23,10 +23,16 @@ import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -36,6 +42,7 @@ import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.jboss.galleon.api.MavenStreamResolver;
 import org.jboss.galleon.api.Provisioning;
@@ -43,6 +50,7 @@ import org.jboss.galleon.universe.maven.MavenArtifact;
 import org.jboss.galleon.universe.maven.MavenUniverseException;
 import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
 import org.jboss.galleon.util.ZipUtils;
+import org.wildfly.channel.ArtifactCoordinate;
 import org.wildfly.channel.ArtifactTransferException;
 import org.wildfly.channel.Channel;
 import org.wildfly.channel.ChannelManifest;
@@ -62,22 +70,44 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
     private static final String REQUIRE_CHANNEL_FOR_ALL_ARTIFACT = "org.wildfly.plugins.galleon.all.artifact.requires.channel.resolution";
     private static final String BOOTABLE_JAR_PLUGIN_GROUPID = "org.wildfly.plugins";
     private static final String BOOTABLE_JAR_CLOUD_EXTENSION_ARTIFACTID = "wildfly-jar-cloud-extension";
+    // Artifacts without a stream are removed from the batch and the batch is retried.
+    private static final int MAX_PREFETCH_ATTEMPTS = 3;
 
     private final ChannelSession channelSession;
     private final List<Channel> channels = new ArrayList<>();
     private final Log log;
     private final Path localCachePath;
     private final RepositorySystem system;
+    private final ChannelCache cache;
+    private final DefaultRepositorySystemSession session;
+    private final Map<String, org.wildfly.channel.MavenArtifact> prefetched = new ConcurrentHashMap<>();
+    // Artifacts not found in the channels are inspected once to know if they are feature-packs requiring a channel.
+    private final Map<String, Boolean> requireChannelArtifacts = new ConcurrentHashMap<>();
+    private final AtomicInteger featurePackInspections = new AtomicInteger();
+    private final Set<String> originalVersions = ConcurrentHashMap.newKeySet();
 
     public ChannelMavenArtifactRepositoryManager(List<ChannelConfiguration> channels,
             RepositorySystem system,
             RepositorySystemSession contextSession,
             List<RemoteRepository> repositories, Log log, boolean offline) throws MalformedURLException, UnresolvedMavenArtifactException, MojoExecutionException {
+        this(channels, system, contextSession, repositories, log, offline, null, 0);
+    }
+
+    /**
+     * @param cacheFile The file of the channel metadata cache, null to not use
+     * a cache.
+     * @param cacheTtl The time to live of the cache entries in milliseconds.
+     */
+    public ChannelMavenArtifactRepositoryManager(List<ChannelConfiguration> channels,
+            RepositorySystem system,
+            RepositorySystemSession contextSession,
+            List<RemoteRepository> repositories, Log log, boolean offline, Path cacheFile, long cacheTtl)
+            throws MalformedURLException, UnresolvedMavenArtifactException, MojoExecutionException {
         if (channels.isEmpty()) {
             throw new MojoExecutionException("No channel specified.");
         }
         this.log = log;
-        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session = MavenRepositorySystemUtils.newSession();
         session.setLocalRepositoryManager(contextSession.getLocalRepositoryManager());
         session.setOffline(offline);
         Map<String, RemoteRepository> mapping = new HashMap<>();
@@ -95,11 +125,30 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
             return rep;
         };
         VersionResolverFactory factory = new VersionResolverFactory(system, session, mapper);
-        channelSession = new ChannelSession(this.channels, factory);
+        if (cacheFile == null) {
+            cache = null;
+            channelSession = new ChannelSession(this.channels, factory);
+        } else {
+            try {
+                cache = new ChannelCache(factory, cacheFile, cacheTtl, offline, log);
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Can't read channel cache " + cacheFile, ex);
+            }
+            channelSession = new ChannelSession(this.channels, cache);
+        }
         localCachePath = contextSession.getLocalRepositoryManager().getRepository().getBasedir().toPath();
         this.system = system;
     }
 
+    ChannelMavenArtifactRepositoryManager(ChannelSession channelSession, Log log) {
+        this.channelSession = channelSession;
+        this.log = log;
+        session = MavenRepositorySystemUtils.newSession();
+        cache = null;
+        localCachePath = null;
+        system = null;
+    }
+
     @Override
     public void resolve(MavenArtifact artifact) throws MavenUniverseException {
         // This one is resolved directly.
@@ -144,6 +193,8 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
                             artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(),
                             artifact.getVersion());
                     artifact.setPath(mavenArtifact.getFile().toPath());
+                    originalVersions.add(toKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(),
+                            artifact.getClassifier(), artifact.getVersion()));
                 } catch (UnresolvedMavenArtifactException e) {
                     // if the artifact can not be resolved directly either, we abort
                     throw new MavenUniverseException(e.getLocalizedMessage(), e);
@@ -155,45 +206,167 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
     }
 
     private boolean fpRequireChannel(MavenArtifact artifact) throws Exception {
-        boolean requireChannel = false;
-        if (artifact.getVersion() != null && artifact.getExtension() != null
-                && artifact.getExtension().equalsIgnoreCase("zip")) {
-            org.wildfly.channel.MavenArtifact mavenArtifact = channelSession.resolveDirectMavenArtifact(artifact.getGroupId(),
-                    artifact.getArtifactId(),
-                    artifact.getExtension(),
-                    artifact.getClassifier(),
-                    artifact.getVersion());
-            if (!Provisioning.isFeaturePack(mavenArtifact.getFile().toPath())) {
-                // Not a feature-pack
-                return requireChannel;
+        if (artifact.getVersion() == null || artifact.getExtension() == null
+                || !artifact.getExtension().equalsIgnoreCase("zip")) {
+            return false;
+        }
+        String key = toKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(),
+                artifact.getClassifier(), artifact.getVersion());
+        // The content of a release can't change, the result is kept in the channel cache.
+        boolean persistent = cache != null && !artifact.getVersion().endsWith("-SNAPSHOT");
+        Boolean requireChannel = requireChannelArtifacts.get(key);
+        if (requireChannel == null && persistent) {
+            requireChannel = cache.getRequireChannel(key);
+        }
+        if (requireChannel == null) {
+            featurePackInspections.incrementAndGet();
+            requireChannel = readRequireChannel(artifact);
+            if (persistent) {
+                cache.putRequireChannel(key, requireChannel);
             }
-            try (FileSystem fs = ZipUtils.newFileSystem(mavenArtifact.getFile().toPath())) {
-                Path resPath = fs.getPath("resources");
-                final Path wfRes = resPath.resolve("wildfly");
-                final Path channelPropsPath = wfRes.resolve("wildfly-channel.properties");
-                if (Files.exists(channelPropsPath)) {
-                    Properties props = new Properties();
-                    try (BufferedReader reader = Files.newBufferedReader(channelPropsPath)) {
-                        props.load(reader);
-                    }
-                    String resolution = props.getProperty("resolution");
-                    if (resolution != null) {
-                        requireChannel = "REQUIRED".equals(resolution) || "REQUIRED_FP_ONLY".equals(resolution);
-                    }
+        }
+        requireChannelArtifacts.put(key, requireChannel);
+        return requireChannel;
+    }
+
+    private boolean readRequireChannel(MavenArtifact artifact) throws Exception {
+        boolean requireChannel = false;
+        org.wildfly.channel.MavenArtifact mavenArtifact = channelSession.resolveDirectMavenArtifact(artifact.getGroupId(),
+                artifact.getArtifactId(),
+                artifact.getExtension(),
+                artifact.getClassifier(),
+                artifact.getVersion());
+        if (!Provisioning.isFeaturePack(mavenArtifact.getFile().toPath())) {
+            // Not a feature-pack
+            return requireChannel;
+        }
+        try (FileSystem fs = ZipUtils.newFileSystem(mavenArtifact.getFile().toPath())) {
+            Path resPath = fs.getPath("resources");
+            final Path wfRes = resPath.resolve("wildfly");
+            final Path channelPropsPath = wfRes.resolve("wildfly-channel.properties");
+            if (Files.exists(channelPropsPath)) {
+                Properties props = new Properties();
+                try (BufferedReader reader = Files.newBufferedReader(channelPropsPath)) {
+                    props.load(reader);
+                }
+                String resolution = props.getProperty("resolution");
+                if (resolution != null) {
+                    requireChannel = "REQUIRED".equals(resolution) || "REQUIRED_FP_ONLY".equals(resolution);
                 }
             }
         }
         return requireChannel;
     }
 
+    /**
+     * Resolve artifacts through the channels in a single batch before
+     * provisioning. The missing artifacts are downloaded concurrently, the
+     * resolved artifacts are then returned to the resolution of each artifact
+     * done while provisioning. Artifacts that can't be resolved from the
+     * channels are left to the provisioning. The versions of an artifact are
+     * resolved in distinct batches, the channels resolving the requested
+     * coordinates to the channel versions.
+     *
+     * @param coords The artifacts, in the
+     * {@code groupId:artifactId:version:classifier:extension} format.
+     * @param threads The number of concurrent downloads.
+     * @return The number of artifacts resolved.
+     */
+    int prefetch(Collection<String> coords, int threads) {
+        Set<ArtifactCoordinate> coordinates = new LinkedHashSet<>();
+        for (String c : coords) {
+            Artifact artifact = ArtifactPrefetch.toArtifact(c);
+            if (artifact != null) {
+                coordinates.add(new ArtifactCoordinate(artifact.getGroupId(), artifact.getArtifactId(),
+                        artifact.getExtension(), artifact.getClassifier().isEmpty() ? null : artifact.getClassifier(),
+                        artifact.getVersion()));
+            }
+        }
+        session.setConfigProperty(ArtifactPrefetch.CONNECTOR_THREADS, Math.max(1, threads));
+        // A batch holds a single version of an artifact.
+        List<Map<String, ArtifactCoordinate>> batches = new ArrayList<>();
+        for (ArtifactCoordinate c : coordinates) {
+            String key = toKey(c.getGroupId(), c.getArtifactId(), c.getExtension(), c.getClassifier(), null);
+            Map<String, ArtifactCoordinate> batch = null;
+            for (Map<String, ArtifactCoordinate> b : batches) {
+                if (!b.containsKey(key)) {
+                    batch = b;
+                    break;
+                }
+            }
+            if (batch == null) {
+                batch = new LinkedHashMap<>();
+                batches.add(batch);
+            }
+            batch.put(key, c);
+        }
+        for (Map<String, ArtifactCoordinate> batch : batches) {
+            prefetch(batch);
+        }
+        return prefetched.size();
+    }
+
+    /**
+     * @param batch The requested coordinates, keyed by their coordinates
+     * without the version.
+     */
+    private void prefetch(Map<String, ArtifactCoordinate> batch) {
+        for (int i = 0; i < MAX_PREFETCH_ATTEMPTS && !batch.isEmpty(); i++) {
+            List<org.wildfly.channel.MavenArtifact> results;
+            try {
+                results = channelSession.resolveMavenArtifacts(new ArrayList<>(batch.values()));
+            } catch (UnresolvedMavenArtifactException ex) {
+                if (!batch.values().removeAll(ex.getUnresolvedArtifacts())) {
+                    log.debug("Prefetching artifacts through channels failed: " + ex.getLocalizedMessage());
+                    break;
+                }
+                continue;
+            }
+            // The results have the channel version, they are recorded for the requested version.
+            for (org.wildfly.channel.MavenArtifact result : results) {
+                ArtifactCoordinate c = batch.get(toKey(result.getGroupId(), result.getArtifactId(), result.getExtension(),
+                        result.getClassifier(), null));
+                if (c != null) {
+                    prefetched.put(toKey(c.getGroupId(), c.getArtifactId(), c.getExtension(), c.getClassifier(), c.getVersion()), result);
+                }
+            }
+            break;
+        }
+    }
+
+    /**
+     * @param artifact The artifact as returned by
+     * {@link #toKey(String, String, String, String, String)}.
+     * @return true if the artifact has not been found in the channels and has
+     * been resolved using the original version.
+     */
+    boolean isOriginalVersion(String artifact) {
+        return originalVersions.contains(artifact);
+    }
+
+    static String toKey(String groupId, String artifactId, String extension, String classifier, String version) {
+        return groupId + ":" + artifactId + ":" + (extension == null ? "" : extension) + ":"
+                + (classifier == null ? "" : classifier) + ":" + (version == null ? "" : version);
+    }
+
     private void resolveFromChannels(MavenArtifact artifact) throws UnresolvedMavenArtifactException {
-        org.wildfly.channel.MavenArtifact result = channelSession.resolveMavenArtifact(artifact.getGroupId(),
-                artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(), artifact.getVersion());
+        org.wildfly.channel.MavenArtifact result = prefetched.get(toKey(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getExtension(), artifact.getClassifier(), artifact.getVersion()));
+        if (result == null) {
+            result = channelSession.resolveMavenArtifact(artifact.getGroupId(),
+                    artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(), artifact.getVersion());
+        }
         artifact.setVersion(result.getVersion());
         artifact.setPath(result.getFile().toPath());
     }
 
     public void done(Path home) throws MavenUniverseException, IOException {
+        log.debug("Artifacts not found in channels inspected as feature-packs: " + featurePackInspections.get()
+                + ", artifacts not found in channels: " + requireChannelArtifacts.size());
+        if (cache != null) {
+            log.debug("Channel cache hits: " + cache.getHits() + ", misses: " + cache.getMisses());
+            cache.store();
+        }
         ChannelManifest channelManifest = channelSession.getRecordedChannel();
         final ManifestVersionRecord currentVersions = ManifestVersionResolver.getCurrentVersions(channelSession);
         ProsperoMetadataUtils.generate(home, channels, channelManifest, currentVersions);
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.repository.LocalRepository;
+import org.jboss.galleon.util.IoUtils;
+
+/**
+ * Populate a local Maven repository with all the artifacts required to build
+ * the bootable JAR with the configured channels: channel manifests,
+ * feature-packs, JBoss Modules artifacts, CLI artifacts, JBoss Modules runtime
+ * and cloud extension. The server is provisioned in a temporary directory, no
+ * bootable JAR is built. The repository can then be used as local repository
+ * of offline builds.
+ */
+@Mojo(name = "channel-mirror", requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME)
+public final class ChannelMirrorMojo extends BuildBootableJarMojo {
+
+    /**
+     * The local Maven repository to populate.
+     */
+    @Parameter(alias = "mirror-directory", property = "wildfly.bootable.channel.mirror.dir",
+            defaultValue = "${project.build.directory}/bootable-jar-channel-mirror")
+    File mirrorDirectory;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().debug(String.format("Skipping run of %s:%s", project.getGroupId(), project.getArtifactId()));
+            return;
+        }
+        if (channels == null || channels.isEmpty()) {
+            throw new MojoExecutionException("No channel configured, the channel mirror can't be populated.");
+        }
+        if (offline || repoSession.isOffline()) {
+            throw new MojoExecutionException("The channel mirror can't be populated offline.");
+        }
+        Path mirror = mirrorDirectory.toPath().toAbsolutePath();
+        DefaultRepositorySystemSession mirrorSession = new DefaultRepositorySystemSession(repoSession);
+        mirrorSession.setLocalRepositoryManager(repoSystem.newLocalRepositoryManager(mirrorSession,
+                new LocalRepository(mirror.toFile())));
+        repoSession = mirrorSession;
+        // All the artifacts must be resolved, the server is not restored from the cache.
+        provisioningCache = false;
+        artifactPrefetch = true;
+        Path workDir;
+        try {
+            Files.createDirectories(mirror);
+            Path target = Files.createDirectories(Paths.get(project.getBuild().getDirectory()));
+            workDir = Files.createTempDirectory(target, "bootable-jar-channel-mirror-");
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Can't create the channel mirror directories", ex);
+        }
+        long start = System.currentTimeMillis();
+        try {
+            resolveServerArtifacts(workDir);
+        } finally {
+            IoUtils.recursiveDelete(workDir);
+        }
+        getLog().info("Channel mirror " + mirror + " populated in " + (System.currentTimeMillis() - start) + "ms");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.util.Locale;
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * How the entries of the bootable JAR and of the server archive are compressed.
+ */
+enum CompressionPolicy {
+    /**
+     * All entries are deflated.
+     */
+    DEFLATE("deflate"),
+    /**
+     * Archives (jar, zip, war files) that are already compressed are stored,
+     * other entries are deflated.
+     */
+    STORE_ARCHIVES("store-archives");
+
+    private static final String[] ARCHIVE_EXTENSIONS = {".jar", ".zip", ".war"};
+
+    private final String name;
+
+    CompressionPolicy(String name) {
+        this.name = name;
+    }
+
+    boolean isStored(String entryName) {
+        if (this == DEFLATE) {
+            return false;
+        }
+        String lower = entryName.toLowerCase(Locale.ENGLISH);
+        for (String ext : ARCHIVE_EXTENSIONS) {
+            if (lower.endsWith(ext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    static CompressionPolicy fromString(String value) throws MojoExecutionException {
+        if (value == null || value.isEmpty()) {
+            return DEFLATE;
+        }
+        for (CompressionPolicy policy : values()) {
+            if (policy.name.equals(value)) {
+                return policy;
+            }
+        }
+        throw new MojoExecutionException("Unknown compression policy " + value + ", expecting "
+                + DEFLATE + " or " + STORE_ARCHIVES);
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.jboss.galleon.util.IoUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Deployments stored in the server content repository
+ * ({@code standalone/data/content/<2 first hash chars>/<other hash chars>/content}) and
+ * referenced by their SHA-1 hash from the server configuration.
+ *
+ * Deployments are added without starting an embedded server: the content is
+ * copied in the content repository and the {@code <deployments>} element of
+ * the parsed configuration is updated. As when the server persists its
+ * configuration, the whole file is written again, attributes in alphabetical
+ * order.
+ */
+final class DeploymentContent {
+
+    private static final String DEPLOYMENTS = "deployments";
+    private static final String DEPLOYMENT = "deployment";
+    private static final String DEPLOYMENT_OVERLAYS = "deployment-overlays";
+    private static final String SOCKET_BINDING_GROUP = "socket-binding-group";
+    private static final String CONTENT = "content";
+    private static final String NAME = "name";
+    private static final String RUNTIME_NAME = "runtime-name";
+    private static final String SHA1 = "sha1";
+    private static final String INDENT = "    ";
+    private static final Pattern XML_DECLARATION = Pattern.compile("<\\?xml[^>]*\\?>\\s*");
+
+    private DeploymentContent() {
+    }
+
+    static Path getStandaloneXml(Path wildflyDir) {
+        return wildflyDir.resolve("standalone").resolve("configuration").resolve("standalone.xml");
+    }
+
+    static Path getContentDir(Path wildflyDir, String hash) {
+        return wildflyDir.resolve("standalone").resolve("data").resolve("content")
+                .resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+    }
+
+    static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Copy a deployment in the content repository.
+     *
+     * @return The hash of the deployment.
+     */
+    static String add(Path wildflyDir, Path deployment) throws IOException {
+        String hash = hash(deployment);
+        Path contentDir = getContentDir(wildflyDir, hash);
+        Files.createDirectories(contentDir);
+        Files.copy(deployment, contentDir.resolve("content"), StandardCopyOption.REPLACE_EXISTING);
+        return hash;
+    }
+
+    static boolean exists(Path wildflyDir, String hash) {
+        return Files.exists(getContentDir(wildflyDir, hash).resolve("content"));
+    }
+
+    static void remove(Path wildflyDir, String hash) throws IOException {
+        Path contentDir = getContentDir(wildflyDir, hash);
+        IoUtils.recursiveDelete(contentDir);
+        Path parent = contentDir.getParent();
+        try (Stream<Path> children = Files.list(parent)) {
+            if (!children.findAny().isPresent()) {
+                Files.delete(parent);
+            }
+        }
+    }
+
+    /**
+     * Add a deployment to the server configuration, as the CLI {@code deploy}
+     * command does in an embedded server.
+     *
+     * @return false if the configuration can't be updated: no configuration
+     * or a deployment with the same name already exists.
+     */
+    static boolean deploy(Path wildflyDir, Path deployment, String name, String runtimeName) throws IOException {
+        Path standaloneXml = getStandaloneXml(wildflyDir);
+        if (!Files.exists(standaloneXml)) {
+            return false;
+        }
+        String config = new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8);
+        Document document = parse(config);
+        Element server = document.getDocumentElement();
+        Element deployments = getChild(server, DEPLOYMENTS);
+        if (deployments != null && getDeployment(deployments, name) != null) {
+            return false;
+        }
+        String hash = add(wildflyDir, deployment);
+        if (deployments == null) {
+            // Same location as the server model persister.
+            deployments = document.createElementNS(server.getNamespaceURI(), DEPLOYMENTS);
+            Element overlays = getChild(server, DEPLOYMENT_OVERLAYS);
+            Element socketBindingGroup = getLastChild(server, SOCKET_BINDING_GROUP);
+            if (overlays != null) {
+                server.insertBefore(deployments, overlays);
+                server.insertBefore(document.createTextNode(indent(1)), overlays);
+            } else if (socketBindingGroup != null) {
+                Node next = socketBindingGroup.getNextSibling();
+                server.insertBefore(document.createTextNode(indent(1)), next);
+                server.insertBefore(deployments, next);
+            } else {
+                append(server, deployments, 1);
+            }
+        }
+        Element element = document.createElementNS(server.getNamespaceURI(), DEPLOYMENT);
+        element.setAttribute(NAME, name);
+        element.setAttribute(RUNTIME_NAME, runtimeName);
+        Element content = document.createElementNS(server.getNamespaceURI(), CONTENT);
+        content.setAttribute(SHA1, hash);
+        append(element, content, 3);
+        append(deployments, element, 2);
+        write(document, config, standaloneXml);
+        return true;
+    }
+
+    // Append an element and keep the indentation of the parent content.
+    private static void append(Element parent, Element child, int depth) {
+        Document document = parent.getOwnerDocument();
+        Node last = parent.getLastChild();
+        if (last != null && last.getNodeType() == Node.TEXT_NODE && last.getNodeValue().trim().isEmpty()) {
+            parent.insertBefore(document.createTextNode(indent(depth)), last);
+            parent.insertBefore(child, last);
+        } else {
+            parent.appendChild(document.createTextNode(indent(depth)));
+            parent.appendChild(child);
+            parent.appendChild(document.createTextNode(indent(depth - 1)));
+        }
+    }
+
+    private static String indent(int depth) {
+        StringBuilder builder = new StringBuilder("\n");
+        for (int i = 0; i < depth; i++) {
+            builder.append(INDENT);
+        }
+        return builder.toString();
+    }
+
+    private static Element getChild(Element parent, String localName) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && localName.equals(child.getLocalName())) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static Element getLastChild(Element parent, String localName) {
+        for (Node child = parent.getLastChild(); child != null; child = child.getPreviousSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && localName.equals(child.getLocalName())) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static Element getDeployment(Element deployments, String name) {
+        for (Node child = deployments.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && DEPLOYMENT.equals(child.getLocalName())
+                    && name.equals(((Element) child).getAttribute(NAME))) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static Document parse(String config) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(new InputSource(new StringReader(config)));
+        } catch (ParserConfigurationException | SAXException ex) {
+            throw new IOException("Invalid server configuration", ex);
+        }
+    }
+
+    /**
+     * Write the updated configuration, the XML declaration and the trailing
+     * new line of the original configuration are kept.
+     */
+    private static void write(Document document, String original, Path file) throws IOException {
+        StringWriter writer = new StringWriter();
+        Matcher declaration = XML_DECLARATION.matcher(original);
+        if (declaration.lookingAt()) {
+            writer.write(declaration.group());
+        }
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.transform(new DOMSource(document), new StreamResult(writer));
+        } catch (TransformerException ex) {
+            throw new IOException("Can't write the server configuration", ex);
+        }
+        if (original.endsWith("\n")) {
+            writer.write("\n");
+        }
+        Files.write(file, writer.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replace the content of a deployment already present in the server
+     * configuration. Only the content of the named deployment is updated, the
+     * old content is removed if nothing else references it.
+     *
+     * @return The hash of the new content or null if the named deployment
+     * doesn't reference the old content.
+     */
+    static String replace(Path wildflyDir, String name, String oldHash, Path deployment) throws IOException {
+        Path standaloneXml = getStandaloneXml(wildflyDir);
+        if (!exists(wildflyDir, oldHash) || !Files.exists(standaloneXml)) {
+            return null;
+        }
+        String config = new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8);
+        Document document = parse(config);
+        Element deployments = getChild(document.getDocumentElement(), DEPLOYMENTS);
+        Element element = deployments == null ? null : getDeployment(deployments, name);
+        Element content = element == null ? null : getChild(element, CONTENT);
+        if (content == null || !oldHash.equals(content.getAttribute(SHA1))) {
+            return null;
+        }
+        String hash = add(wildflyDir, deployment);
+        if (!hash.equals(oldHash)) {
+            content.setAttribute(SHA1, hash);
+            write(document, config, standaloneXml);
+            if (!isReferenced(document.getDocumentElement(), oldHash)) {
+                remove(wildflyDir, oldHash);
+            }
+        }
+        return hash;
+    }
+
+    private static boolean isReferenced(Element element, String hash) {
+        if (hash.equals(element.getAttribute(SHA1))) {
+            return true;
+        }
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && isReferenced((Element) child, hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
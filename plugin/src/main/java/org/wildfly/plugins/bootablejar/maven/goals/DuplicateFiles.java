@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Find the files of the server that have the same content. Files are first
+ * grouped by size, only the files that have the size of another file are
+ * hashed.
+ */
+final class DuplicateFiles {
+
+    static final class Group {
+
+        private final String hash;
+        private final long size;
+        private final List<String> files;
+
+        private Group(String hash, long size, List<String> files) {
+            this.hash = hash;
+            this.size = size;
+            this.files = files;
+        }
+
+        String getHash() {
+            return hash;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        /**
+         * The files, relative to the server directory, in name order.
+         */
+        List<String> getFiles() {
+            return files;
+        }
+
+        /**
+         * The bytes of the copies.
+         */
+        long getWasted() {
+            return size * (files.size() - 1);
+        }
+    }
+
+    private DuplicateFiles() {
+    }
+
+    /**
+     * @return The groups of files having the same content, the groups wasting
+     * the most bytes first.
+     */
+    static List<Group> find(Path root) throws IOException {
+        Map<Long, List<Path>> bySize = new TreeMap<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && attrs.size() > 0) {
+                    bySize.computeIfAbsent(attrs.size(), s -> new ArrayList<>()).add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        List<Map.Entry<Long, Path>> candidates = new ArrayList<>();
+        for (Map.Entry<Long, List<Path>> entry : bySize.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                for (Path p : entry.getValue()) {
+                    candidates.add(Map.entry(entry.getKey(), p));
+                }
+            }
+        }
+        List<String> hashes;
+        try {
+            hashes = candidates.parallelStream().map(c -> {
+                try {
+                    return DeploymentContent.hash(c.getValue());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        Map<String, List<String>> byContent = new TreeMap<>();
+        Map<String, Long> sizes = new TreeMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            // The size is part of the key, files of different sizes never have the same content.
+            String key = hashes.get(i) + ":" + candidates.get(i).getKey();
+            byContent.computeIfAbsent(key, k -> new ArrayList<>()).add(root.relativize(candidates.get(i).getValue())
+                    .toString().replace(root.getFileSystem().getSeparator(), "/"));
+            sizes.put(key, candidates.get(i).getKey());
+        }
+        List<Group> groups = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : byContent.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                Collections.sort(entry.getValue());
+                String hash = entry.getKey().substring(0, entry.getKey().indexOf(':'));
+                groups.add(new Group(hash, sizes.get(entry.getKey()), entry.getValue()));
+            }
+        }
+        groups.sort(Comparator.comparingLong(Group::getWasted).reversed().thenComparing(Group::getHash));
+        return groups;
+    }
+
+    /**
+     * Write the report, a line per group followed by the files of the group.
+     *
+     * @return The bytes of all the copies.
+     */
+    static long writeReport(List<Group> groups, Path report) throws IOException {
+        long wasted = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            for (Group group : groups) {
+                wasted += group.getWasted();
+                writer.write(group.getHash() + " size=" + group.getSize() + " copies=" + group.getFiles().size()
+                        + " wasted=" + group.getWasted());
+                writer.newLine();
+                for (String file : group.getFiles()) {
+                    writer.write("  " + file);
+                    writer.newLine();
+                }
+            }
+        }
+        return wasted;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.wildfly.plugin.tools.bootablejar.ScannedArtifacts;
+
+/**
+ * The state recorded after a full build, used to rebuild the bootable JAR
+ * when only the deployment has changed. The fingerprint is a hash of all the
+ * build inputs but the deployment content.
+ */
+final class FastRebuildState {
+
+    static final String FILE_NAME = "fast-rebuild.properties";
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String DEPLOYMENT_NAME = "deployment-name";
+    private static final String DEPLOYMENT_HASH = "deployment-hash";
+
+    private final String fingerprint;
+    private final String deploymentName;
+    private final String deploymentHash;
+    private final ScannedArtifacts scannedArtifacts;
+
+    FastRebuildState(String fingerprint, String deploymentName, String deploymentHash, ScannedArtifacts scannedArtifacts) {
+        this.fingerprint = fingerprint;
+        this.deploymentName = deploymentName;
+        this.deploymentHash = deploymentHash;
+        this.scannedArtifacts = scannedArtifacts;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * The name of the {@code <deployment>} element of the server configuration.
+     */
+    String getDeploymentName() {
+        return deploymentName;
+    }
+
+    String getDeploymentHash() {
+        return deploymentHash;
+    }
+
+    ScannedArtifacts getScannedArtifacts() {
+        return scannedArtifacts;
+    }
+
+    /**
+     * @return The recorded state or null if no valid state exists.
+     */
+    static FastRebuildState read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        String fingerprint = props.getProperty(FINGERPRINT);
+        String deploymentName = props.getProperty(DEPLOYMENT_NAME);
+        String deploymentHash = props.getProperty(DEPLOYMENT_HASH);
+        if (fingerprint == null || deploymentName == null || deploymentHash == null) {
+            return null;
+        }
+        try {
+            return new FastRebuildState(fingerprint, deploymentName, deploymentHash,
+                    ProvisioningCache.readScannedArtifacts(props));
+        } catch (MavenUniverseException ex) {
+            return null;
+        }
+    }
+
+    void write(Path file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(FINGERPRINT, fingerprint);
+        props.setProperty(DEPLOYMENT_NAME, deploymentName);
+        props.setProperty(DEPLOYMENT_HASH, deploymentHash);
+        ProvisioningCache.writeScannedArtifacts(scannedArtifacts, props);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            props.store(out, null);
+        }
+    }
+
+    /**
+     * Compute a fingerprint of build inputs.
+     *
+     * @param inputs Inputs values.
+     * @param files Files or directories whose content is an input.
+     */
+    static String computeFingerprint(List<String> inputs, List<Path> files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        for (String input : inputs) {
+            update(digest, input);
+        }
+        for (Path file : files) {
+            update(digest, file.toString());
+            if (Files.isDirectory(file)) {
+                List<Path> children;
+                try (Stream<Path> stream = Files.walk(file)) {
+                    children = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path child : children) {
+                    update(digest, file.relativize(child).toString());
+                    digest.update(Files.readAllBytes(child));
+                }
+            } else if (Files.exists(file)) {
+                digest.update(Files.readAllBytes(file));
+            }
+        }
+        return DeploymentContent.toHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update((byte) 0);
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+}
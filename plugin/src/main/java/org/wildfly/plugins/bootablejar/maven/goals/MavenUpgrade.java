@@ -20,11 +20,17 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
@@ -45,18 +51,60 @@ import org.wildfly.plugins.bootablejar.maven.common.OverriddenArtifact;
 
 final class MavenUpgrade {
 
+    private static final int MAX_RESOLUTION_THREADS = 8;
+
+    static final class ResolvedFeaturePack {
+
+        private final FeaturePack fp;
+        private final Path path;
+        private final GalleonFeaturePackDescription description;
+
+        ResolvedFeaturePack(FeaturePack fp, Path path, GalleonFeaturePackDescription description) {
+            this.fp = fp;
+            this.path = path;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Resolves a feature-pack file and reads its description.
+     */
+    interface FeaturePackResolver {
+
+        ResolvedFeaturePack resolve(FeaturePack fp) throws ProvisioningException;
+    }
+
     private final Map<String, FeaturePack> dependencies = new LinkedHashMap<>();
     private final Map<String, FeaturePack> topLevels = new LinkedHashMap<>();
     private final AbstractBuildBootableJarMojo mojo;
     private final Map<ProducerSpec, String> producerToGAC = new HashMap<>();
+    private final List<Path> featurePackFiles = new ArrayList<>();
     private ScannedModules modules;
+    private ScanIndex scanIndex;
+    private String scanIndexKey;
     private final GalleonProvisioningConfig originalConfig;
     private final Provisioning provisioning;
-    MavenUpgrade(AbstractBuildBootableJarMojo mojo, Provisioning provisioning, GalleonProvisioningConfig originalConfig)
+    private final SharedProvisioningRuntime runtime;
+    private final FeaturePackResolver resolver;
+    private final int resolutionThreads;
+    MavenUpgrade(AbstractBuildBootableJarMojo mojo, Provisioning provisioning, SharedProvisioningRuntime runtime,
+            GalleonProvisioningConfig originalConfig)
+            throws MavenUniverseException, ProvisioningException, MojoExecutionException {
+        this(mojo, provisioning, runtime, originalConfig, fp -> {
+            Path path = mojo.resolveMaven(fp);
+            return new ResolvedFeaturePack(fp, path, Provisioning.getFeaturePackDescription(path));
+        }, MAX_RESOLUTION_THREADS);
+    }
+
+    MavenUpgrade(AbstractBuildBootableJarMojo mojo, Provisioning provisioning, SharedProvisioningRuntime runtime,
+            GalleonProvisioningConfig originalConfig, FeaturePackResolver resolver, int resolutionThreads)
             throws MavenUniverseException, ProvisioningException, MojoExecutionException {
         this.mojo = mojo;
         this.provisioning = provisioning;
+        this.runtime = runtime;
         this.originalConfig = originalConfig;
+        this.resolver = resolver;
+        this.resolutionThreads = resolutionThreads;
         for (GalleonFeaturePackConfig cfg : originalConfig.getFeaturePackDeps()) {
             FeaturePack fp = toFeaturePack(cfg.getLocation());
             if (fp == null) {
@@ -66,15 +114,17 @@ final class MavenUpgrade {
         }
 
         // Resolve the FP to retrieve dependencies as expressed in fp spec.
+        List<ResolvedFeaturePack> resolvedTopLevels = resolveAll(new ArrayList<>(topLevels.values()));
         Map<String, Path> resolvedFeaturePacks = new LinkedHashMap<>();
-        for (FeaturePack fp : topLevels.values()) {
-            resolvedFeaturePacks.put(fp.getGAC(), mojo.resolveMaven(fp));
+        for (ResolvedFeaturePack resolved : resolvedTopLevels) {
+            resolvedFeaturePacks.put(resolved.fp.getGAC(), resolved.path);
+            featurePackFiles.add(resolved.path);
         }
         mojo.debug("Top level feature-packs: %s", topLevels);
         mojo.debug("Resolved feature-packs: %s", resolvedFeaturePacks);
-        for (Entry<String, Path> entry : resolvedFeaturePacks.entrySet()) {
-            GalleonFeaturePackDescription spec = Provisioning.getFeaturePackDescription(entry.getValue());
-            producerToGAC.put(spec.getProducer().getProducer(), entry.getKey());
+        List<List<FeaturePack>> topLevelDeps = new ArrayList<>();
+        for (ResolvedFeaturePack resolved : resolvedTopLevels) {
+            GalleonFeaturePackDescription spec = resolved.description;
             List<FPID> allDeps = new ArrayList<>();
             for (FPID cfg : spec.getDependencies()) {
                 allDeps.add(cfg);
@@ -82,35 +132,137 @@ final class MavenUpgrade {
             for (FPID cfg : spec.getTransitives()) {
                 allDeps.add(cfg);
             }
+            List<FeaturePack> deps = new ArrayList<>();
             for (FPID cfg : allDeps) {
                 FeaturePack fp = toFeaturePack(cfg.getLocation());
                 if (fp != null) {
                     String gac = fp.getGAC();
                     // Only add the dep if not already seen. The first installed FP dep wins.
                     if (!topLevels.containsKey(gac) && !dependencies.containsKey(gac)) {
-                        // Resolve to retrieve the actual producer and map to GAC
-                        Path p = mojo.resolveMaven(fp);
-                        GalleonFeaturePackDescription depSpec = Provisioning.getFeaturePackDescription(p);
-                        producerToGAC.put(depSpec.getProducer().getProducer(), gac);
                         dependencies.put(gac, fp);
+                        deps.add(fp);
                     }
                 }
             }
+            topLevelDeps.add(deps);
+        }
+        // Resolve the deps to retrieve the actual producer and map to GAC, in the order they have been seen.
+        Map<String, ResolvedFeaturePack> resolvedDeps = new HashMap<>();
+        for (ResolvedFeaturePack resolved : resolveAll(new ArrayList<>(dependencies.values()))) {
+            resolvedDeps.put(resolved.fp.getGAC(), resolved);
+            featurePackFiles.add(resolved.path);
+        }
+        for (int i = 0; i < resolvedTopLevels.size(); i++) {
+            ResolvedFeaturePack resolved = resolvedTopLevels.get(i);
+            producerToGAC.put(resolved.description.getProducer().getProducer(), resolved.fp.getGAC());
+            for (FeaturePack fp : topLevelDeps.get(i)) {
+                producerToGAC.put(resolvedDeps.get(fp.getGAC()).description.getProducer().getProducer(), fp.getGAC());
+            }
         }
         mojo.debug("FP dependencies %s", dependencies);
     }
 
+    /**
+     * Resolve feature-packs concurrently, resolution on a cold local
+     * repository being mostly remote round trips.
+     *
+     * @return The resolved feature-packs, in the order of the feature-packs.
+     */
+    private List<ResolvedFeaturePack> resolveAll(List<FeaturePack> featurePacks) throws ProvisioningException {
+        List<ResolvedFeaturePack> resolved = new ArrayList<>(featurePacks.size());
+        if (featurePacks.size() <= 1 || resolutionThreads <= 1) {
+            for (FeaturePack fp : featurePacks) {
+                resolved.add(resolver.resolve(fp));
+            }
+            return resolved;
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(featurePacks.size(), resolutionThreads), r -> {
+            Thread thread = new Thread(r, "bootable-jar-feature-pack-resolution-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(loader);
+            return thread;
+        });
+        try {
+            List<Future<ResolvedFeaturePack>> futures = new ArrayList<>(featurePacks.size());
+            for (FeaturePack fp : featurePacks) {
+                futures.add(executor.submit(() -> resolver.resolve(fp)));
+            }
+            for (Future<ResolvedFeaturePack> future : futures) {
+                try {
+                    resolved.add(future.get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new ProvisioningException("Interrupted while resolving feature-packs", ex);
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof ProvisioningException) {
+                        throw (ProvisioningException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new ProvisioningException("Error resolving feature-packs", cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return resolved;
+    }
+
+
     private Map<String, String> getOriginalVersions() throws ProvisioningException, MojoExecutionException {
         return getScannedModules().getProvisionedArtifacts();
     }
 
+    @SuppressWarnings("try")
     private ScannedModules getScannedModules() throws ProvisioningException, MojoExecutionException {
+        if (modules == null && scanIndex != null) {
+            try {
+                modules = scanIndex.readModules(scanIndexKey);
+            } catch (IOException ex) {
+                mojo.getLog().warn("Error reading scan index, scanning feature-packs: " + ex.getLocalizedMessage());
+            }
+            if (modules != null) {
+                mojo.debug("Scanned modules read from scan index entry %s", scanIndexKey);
+            }
+        }
         if (modules == null) {
-            modules = ScannedModules.scanProvisionedArtifacts(provisioning, originalConfig);
+            try (BuildTimings.Phase ignored = mojo.getBuildTimings().start("scan-modules")) {
+                modules = ScannedModules.scanProvisionedArtifacts(runtime.getRuntime(originalConfig));
+            }
+            if (scanIndex != null) {
+                try {
+                    scanIndex.writeModules(scanIndexKey, modules);
+                } catch (IOException ex) {
+                    mojo.getLog().warn("Error writing scan index: " + ex.getLocalizedMessage());
+                }
+            }
         }
         return modules;
     }
 
+    /**
+     * The resolved files of the feature-packs and of their dependencies.
+     */
+    List<Path> getFeaturePackFiles() {
+        return featurePackFiles;
+    }
+
+    /**
+     * Read the scanned modules from an index entry, the entry is written
+     * once the modules have been scanned.
+     */
+    void setScanIndex(ScanIndex scanIndex, String key) {
+        this.scanIndex = scanIndex;
+        this.scanIndexKey = key;
+    }
+
     void dumpArtifacts(Path file) throws ProvisioningException, MojoExecutionException, IOException {
         Map<String, Map<String, String>> perModules = getScannedModules().getPerModuleArtifacts();
         StringBuilder builder = new StringBuilder();
@@ -178,13 +330,35 @@ final class MavenUpgrade {
         Files.write(file, builder.toString().getBytes("UTF-8"));
     }
 
-    private static String getOriginalArtifactVersion(OverriddenArtifact a, Map<String, String> originalArtifactVersions) {
+    /**
+     * The artifacts of the server, overridden artifacts replacing the original
+     * ones, in the {@code groupId:artifactId:version:classifier:extension}
+     * format.
+     */
+    @SuppressWarnings("deprecation")
+    Collection<String> getServerArtifacts() throws ProvisioningException, MojoExecutionException {
+        Map<String, String> artifacts = new HashMap<>(getOriginalVersions());
+        for (OverriddenArtifact a : mojo.overriddenServerArtifacts) {
+            String key = getArtifactKey(a);
+            if (artifacts.remove(key) != null && a.getVersion() != null) {
+                artifacts.put(key, a.getGroupId() + ":" + a.getArtifactId() + ":" + a.getVersion() + ":"
+                        + (a.getClassifier() == null ? "" : a.getClassifier()) + ":" + (a.getType() == null ? "jar" : a.getType()));
+            }
+        }
+        return artifacts.values();
+    }
+
+    private static String getArtifactKey(OverriddenArtifact a) {
         StringBuilder keyBuilder = new StringBuilder();
         keyBuilder.append(a.getGroupId()).append(":").append(a.getArtifactId());
         if (a.getClassifier() != null && !a.getClassifier().isEmpty()) {
             keyBuilder.append("::").append(a.getClassifier());
         }
-        String key = keyBuilder.toString();
+        return keyBuilder.toString();
+    }
+
+    private static String getOriginalArtifactVersion(OverriddenArtifact a, Map<String, String> originalArtifactVersions) {
+        String key = getArtifactKey(a);
         String value = originalArtifactVersions.get(key);
         if (value == null) {
             return null;
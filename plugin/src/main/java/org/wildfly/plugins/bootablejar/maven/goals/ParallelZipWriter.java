@@ -0,0 +1,708 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * A zip writer that deflates entries concurrently. Entries are compressed by
+ * the executor tasks and written in the order they have been added, so the
+ * produced archive doesn't depend on the number of threads.
+ *
+ * Small files are compressed in memory as a whole. Large files and streamed
+ * entries are split in blocks that are compressed concurrently, each block
+ * using the end of the previous one as dictionary, then concatenated in a
+ * single deflate stream.
+ *
+ * Entries that the {@link CompressionPolicy} designates are stored without
+ * compression. A streamed entry can only be stored when the archive is written
+ * to a file channel, its header being updated once the entry is complete.
+ *
+ * When no executor is provided, compression is done in the calling thread.
+ *
+ * Entry times are converted to MS-DOS times in the default time zone, a
+ * reproducible archive uses a fixed time zone.
+ */
+final class ParallelZipWriter implements Closeable {
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_SIG = 0x06054b50;
+    private static final int ZIP64_END_SIG = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+
+    // Files bigger than this size are compressed by blocks.
+    private static final long BLOCK_THRESHOLD = 4 * 1024 * 1024;
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    // Bound the amount of uncompressed content held in memory.
+    private static final long MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
+    private final CountingOutputStream out;
+    private final FileChannel channel;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final CompressionPolicy policy;
+    private final int level;
+    private final Deque<PendingEntry> pending = new ArrayDeque<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private ZoneId zone = ZoneId.systemDefault();
+    private long pendingBytes;
+    private boolean entryOpen;
+    private boolean finished;
+
+    /**
+     * @param out The stream to write the archive to.
+     * @param executor The executor used to compress entries, can be null.
+     * @param threads The number of threads of the executor.
+     * @param policy The policy used to select the entries to store.
+     * @param level The deflate compression level.
+     */
+    ParallelZipWriter(OutputStream out, ExecutorService executor, int threads, CompressionPolicy policy, int level) {
+        this(out, null, executor, threads, policy, level);
+    }
+
+    /**
+     * Write the archive to a new file channel.
+     */
+    ParallelZipWriter(FileChannel channel, ExecutorService executor, int threads, CompressionPolicy policy, int level) {
+        this(new BufferedOutputStream(Channels.newOutputStream(channel)), channel, executor, threads, policy, level);
+    }
+
+    private ParallelZipWriter(OutputStream out, FileChannel channel, ExecutorService executor, int threads,
+            CompressionPolicy policy, int level) {
+        this.out = new CountingOutputStream(out);
+        this.channel = channel;
+        this.executor = executor;
+        this.maxPending = Math.max(1, threads) * 4;
+        this.policy = policy;
+        this.level = level;
+    }
+
+    /**
+     * Set the time zone of the entry times.
+     */
+    void setTimeZone(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    void addDirectory(String name, long time) throws IOException {
+        checkState();
+        Entry entry = newEntry(name.endsWith("/") ? name : name + "/", time);
+        enqueue(entry, CompletableFuture.completedFuture(Compressed.EMPTY), 0);
+    }
+
+    void addEntry(String name, long time, byte[] content) throws IOException {
+        checkState();
+        boolean stored = policy.isStored(name);
+        enqueue(newEntry(name, time), submit(() -> stored ? store(content) : deflate(content)), content.length);
+    }
+
+    void addFile(String name, long time, Path file) throws IOException {
+        checkState();
+        long size = Files.size(file);
+        if (policy.isStored(name)) {
+            if (size > BLOCK_THRESHOLD) {
+                // Only the checksum is computed upfront, the file is copied when the entry is written.
+                enqueue(newEntry(name, time), submit(() -> checksum(file)), 0);
+            } else {
+                enqueue(newEntry(name, time), submit(() -> store(Files.readAllBytes(file))), size);
+            }
+        } else if (size > BLOCK_THRESHOLD) {
+            try (OutputStream stream = openEntry(name, time)) {
+                Files.copy(file, stream);
+            }
+        } else {
+            enqueue(newEntry(name, time), submit(() -> deflate(Files.readAllBytes(file))), size);
+        }
+    }
+
+    /**
+     * Open a streamed entry. The entry is complete when the returned stream is
+     * closed. No other entry can be added while the entry is open.
+     */
+    OutputStream openEntry(String name, long time) throws IOException {
+        checkState();
+        drain(0);
+        Entry entry = newEntry(name, time);
+        // Without a file channel, a streamed entry is always deflated.
+        if (channel != null && policy.isStored(name)) {
+            writeLocalHeader(entry);
+            entryOpen = true;
+            return new StoredOutputStream(entry);
+        }
+        entry.flags |= FLAG_DATA_DESCRIPTOR;
+        entry.method = ZipEntry.DEFLATED;
+        writeLocalHeader(entry);
+        entryOpen = true;
+        return new BlockOutputStream(entry);
+    }
+
+    /**
+     * Write pending entries and the central directory. The underlying stream
+     * is not closed.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        checkState();
+        drain(0);
+        finished = true;
+        long cdOffset = out.count;
+        for (Entry entry : entries) {
+            writeCentralHeader(entry);
+        }
+        long cdSize = out.count - cdOffset;
+        boolean zip64 = entries.size() >= ZIP64_MAGIC_COUNT || cdOffset >= ZIP64_MAGIC || cdSize >= ZIP64_MAGIC;
+        if (zip64) {
+            long zip64EndOffset = out.count;
+            writeInt(ZIP64_END_SIG);
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(entries.size());
+            writeLong(entries.size());
+            writeLong(cdSize);
+            writeLong(cdOffset);
+            writeInt(ZIP64_LOCATOR_SIG);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+        writeInt(END_SIG);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(entries.size(), ZIP64_MAGIC_COUNT));
+        writeShort(Math.min(entries.size(), ZIP64_MAGIC_COUNT));
+        writeInt(Math.min(cdSize, ZIP64_MAGIC));
+        writeInt(Math.min(cdOffset, ZIP64_MAGIC));
+        writeShort(0);
+        out.flush();
+    }
+
+    /**
+     * Finish the archive and close the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private Entry newEntry(String name, long time) {
+        return new Entry(name, toDosTime(time, zone));
+    }
+
+    private void checkState() throws IOException {
+        if (finished) {
+            throw new IOException("Zip archive is already finished");
+        }
+        if (entryOpen) {
+            throw new IOException("A streamed entry is still open");
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> task) throws IOException {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (IOException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+        }
+        return executor.submit(task);
+    }
+
+    private void enqueue(Entry entry, Future<Compressed> future, long size) throws IOException {
+        pending.add(new PendingEntry(entry, future, size));
+        pendingBytes += size;
+        drain(maxPending);
+    }
+
+    private void drain(int limit) throws IOException {
+        while (!pending.isEmpty() && (pending.size() > limit || pendingBytes > MAX_PENDING_BYTES)) {
+            PendingEntry next = pending.poll();
+            pendingBytes -= next.size;
+            Compressed compressed = get(next.future);
+            Entry entry = next.entry;
+            entry.method = compressed.method;
+            entry.crc = compressed.crc;
+            entry.size = compressed.size;
+            entry.compressedSize = compressed.file == null ? compressed.length : compressed.size;
+            writeLocalHeader(entry);
+            if (compressed.file == null) {
+                out.write(compressed.data, 0, compressed.length);
+            } else {
+                try (InputStream in = Files.newInputStream(compressed.file)) {
+                    long copied = in.transferTo(out);
+                    if (copied != compressed.size) {
+                        throw new IOException("File " + compressed.file + " has been modified while being archived");
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    private Compressed deflate(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, content.length + content.length / 1000 + 64)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return new Compressed(ZipEntry.DEFLATED, crc.getValue(), content.length, buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static Compressed store(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return new Compressed(ZipEntry.STORED, crc.getValue(), content.length, content, content.length);
+    }
+
+    private static Compressed checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, n);
+                size += n;
+            }
+        }
+        return new Compressed(crc.getValue(), size, file);
+    }
+
+    private byte[] deflateBlock(byte[] block, int length, byte[] dictionary, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(block, 0, length);
+            byte[] buffer = new byte[length + length / 1000 + 64];
+            int size = 0;
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (size == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    size += deflater.deflate(buffer, size, buffer.length - size);
+                }
+            } else {
+                int n;
+                do {
+                    if (size == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    n = deflater.deflate(buffer, size, buffer.length - size, Deflater.SYNC_FLUSH);
+                    size += n;
+                } while (size == buffer.length);
+            }
+            return Arrays.copyOf(buffer, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeLocalHeader(Entry entry) throws IOException {
+        entry.offset = out.count;
+        boolean zip64 = entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC;
+        writeInt(LOCAL_HEADER_SIG);
+        writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        writeShort(entry.flags);
+        writeShort(entry.method);
+        writeInt(entry.dosTime);
+        writeInt(entry.crc);
+        writeInt(zip64 ? ZIP64_MAGIC : entry.compressedSize);
+        writeInt(zip64 ? ZIP64_MAGIC : entry.size);
+        writeShort(entry.name.length);
+        writeShort(zip64 ? 20 : 0);
+        out.write(entry.name);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(16);
+            writeLong(entry.size);
+            writeLong(entry.compressedSize);
+        }
+        entries.add(entry);
+    }
+
+    private void writeCentralHeader(Entry entry) throws IOException {
+        int extraSize = 0;
+        if (entry.size >= ZIP64_MAGIC) {
+            extraSize += 8;
+        }
+        if (entry.compressedSize >= ZIP64_MAGIC) {
+            extraSize += 8;
+        }
+        if (entry.offset >= ZIP64_MAGIC) {
+            extraSize += 8;
+        }
+        int version = extraSize > 0 ? VERSION_ZIP64 : VERSION;
+        writeInt(CENTRAL_HEADER_SIG);
+        writeShort(version);
+        writeShort(version);
+        writeShort(entry.flags);
+        writeShort(entry.method);
+        writeInt(entry.dosTime);
+        writeInt(entry.crc);
+        writeInt(Math.min(entry.compressedSize, ZIP64_MAGIC));
+        writeInt(Math.min(entry.size, ZIP64_MAGIC));
+        writeShort(entry.name.length);
+        writeShort(extraSize > 0 ? extraSize + 4 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(Math.min(entry.offset, ZIP64_MAGIC));
+        out.write(entry.name);
+        if (extraSize > 0) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(extraSize);
+            if (entry.size >= ZIP64_MAGIC) {
+                writeLong(entry.size);
+            }
+            if (entry.compressedSize >= ZIP64_MAGIC) {
+                writeLong(entry.compressedSize);
+            }
+            if (entry.offset >= ZIP64_MAGIC) {
+                writeLong(entry.offset);
+            }
+        }
+    }
+
+    private void writeShort(int v) throws IOException {
+        out.write(v & 0xff);
+        out.write((v >>> 8) & 0xff);
+    }
+
+    private void writeInt(long v) throws IOException {
+        writeShort((int) (v & 0xffff));
+        writeShort((int) ((v >>> 16) & 0xffff));
+    }
+
+    private void writeLong(long v) throws IOException {
+        writeInt(v & ZIP64_MAGIC);
+        writeInt(v >>> 32);
+    }
+
+    static long toDosTime(long time) {
+        return toDosTime(time, ZoneId.systemDefault());
+    }
+
+    static long toDosTime(long time, ZoneId zone) {
+        LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zone);
+        int year = ldt.getYear();
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) (year - 1980) << 25 | ldt.getMonthValue() << 21 | ldt.getDayOfMonth() << 16
+                | ldt.getHour() << 11 | ldt.getMinute() << 5 | ldt.getSecond() >> 1) & ZIP64_MAGIC;
+    }
+
+    /**
+     * A streamed entry, deflated by blocks.
+     */
+    private final class BlockOutputStream extends OutputStream {
+
+        private final Entry entry;
+        private final CRC32 crc = new CRC32();
+        private final Deque<Future<byte[]>> blocks = new ArrayDeque<>();
+        private byte[] block = new byte[BLOCK_SIZE];
+        private int count;
+        private byte[] dictionary;
+        private long size;
+        private long compressedSize;
+        private boolean closed;
+
+        private BlockOutputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Entry " + new String(entry.name, StandardCharsets.UTF_8) + " is closed");
+            }
+            crc.update(b, off, len);
+            size += len;
+            while (len > 0) {
+                int n = Math.min(len, block.length - count);
+                System.arraycopy(b, off, block, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == block.length) {
+                    submitBlock(false);
+                }
+            }
+        }
+
+        private void submitBlock(boolean last) throws IOException {
+            final byte[] input = block;
+            final int length = count;
+            final byte[] dict = dictionary;
+            dictionary = length >= DICTIONARY_SIZE ? Arrays.copyOfRange(input, length - DICTIONARY_SIZE, length) : null;
+            blocks.add(submit(() -> deflateBlock(input, length, dict, last)));
+            block = new byte[BLOCK_SIZE];
+            count = 0;
+            writeBlocks(maxPending);
+        }
+
+        private void writeBlocks(int limit) throws IOException {
+            while (blocks.size() > limit) {
+                byte[] compressed = get(blocks.poll());
+                out.write(compressed);
+                compressedSize += compressed.length;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            submitBlock(true);
+            writeBlocks(0);
+            if (size >= ZIP64_MAGIC || compressedSize >= ZIP64_MAGIC) {
+                throw new ZipException("Entry " + new String(entry.name, StandardCharsets.UTF_8) + " is too large");
+            }
+            entry.crc = crc.getValue();
+            entry.size = size;
+            entry.compressedSize = compressedSize;
+            writeInt(DATA_DESCRIPTOR_SIG);
+            writeInt(entry.crc);
+            writeInt(entry.compressedSize);
+            writeInt(entry.size);
+            entryOpen = false;
+        }
+    }
+
+    /**
+     * A streamed stored entry. The local header is updated with the checksum
+     * and the size when the entry is closed.
+     */
+    private final class StoredOutputStream extends OutputStream {
+
+        private final Entry entry;
+        private final CRC32 crc = new CRC32();
+        private long size;
+        private boolean closed;
+
+        private StoredOutputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Entry " + new String(entry.name, StandardCharsets.UTF_8) + " is closed");
+            }
+            crc.update(b, off, len);
+            size += len;
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (size >= ZIP64_MAGIC) {
+                throw new ZipException("Entry " + new String(entry.name, StandardCharsets.UTF_8) + " is too large");
+            }
+            entry.crc = crc.getValue();
+            entry.size = size;
+            entry.compressedSize = size;
+            out.flush();
+            // crc, compressed size and size follow the signature, versions, flags, method and time.
+            ByteBuffer buffer = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt((int) entry.crc).putInt((int) size).putInt((int) size).flip();
+            long position = entry.offset + 14;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            entryOpen = false;
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] name;
+        private final long dosTime;
+        private int flags = FLAG_UTF8;
+        private int method = ZipEntry.STORED;
+        private long crc;
+        private long size;
+        private long compressedSize;
+        private long offset;
+
+        private Entry(String name, long dosTime) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.dosTime = dosTime;
+        }
+    }
+
+    private static final class PendingEntry {
+
+        private final Entry entry;
+        private final Future<Compressed> future;
+        private final long size;
+
+        private PendingEntry(Entry entry, Future<Compressed> future, long size) {
+            this.entry = entry;
+            this.future = future;
+            this.size = size;
+        }
+    }
+
+    private static final class Compressed {
+
+        private static final Compressed EMPTY = new Compressed(ZipEntry.STORED, 0, 0, new byte[0], 0);
+
+        private final int method;
+        private final long crc;
+        private final long size;
+        private final byte[] data;
+        private final int length;
+        private final Path file;
+
+        private Compressed(int method, long crc, long size, byte[] data, int length) {
+            this.method = method;
+            this.crc = crc;
+            this.size = size;
+            this.data = data;
+            this.length = length;
+            this.file = null;
+        }
+
+        // Stored content copied from a file.
+        private Compressed(long crc, long size, Path file) {
+            this.method = ZipEntry.STORED;
+            this.crc = crc;
+            this.size = size;
+            this.data = null;
+            this.length = 0;
+            this.file = file;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count += 1;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.maven.plugin.logging.Log;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.jboss.galleon.util.IoUtils;
+import org.wildfly.plugin.tools.bootablejar.ScannedArtifacts;
+
+/**
+ * A cache of provisioned servers. A cache entry is keyed by a hash of the
+ * provisioning inputs and contains a copy of the provisioned server and the
+ * artifacts scanned from the feature-packs.
+ *
+ * Entries are created in a temporary directory then renamed, so concurrent
+ * builds sharing the same cache directory never see a partial entry. Only the
+ * most recently used entries are kept.
+ *
+ * When linking is enabled, the JBoss Modules JAR files are hard linked
+ * between the cache and the server instead of being copied. The JAR files of
+ * the modules are never modified. If the file system doesn't support hard
+ * links, the files are copied.
+ */
+final class ProvisioningCache {
+
+    private static final String WILDFLY = "wildfly";
+    private static final String SCANNED_ARTIFACTS = "scanned-artifacts.properties";
+    private static final String BOOT = "boot";
+    private static final String JBOSS_MODULES = "jboss-modules";
+    private static final String CLI = "cli.";
+    private static final String TMP_PREFIX = ".tmp-";
+    private static final int MAX_ENTRIES = 5;
+
+    private static final String MODULES = "modules";
+    private static final String JAR = ".jar";
+
+    private final Path cacheDir;
+    private final Log log;
+    private final boolean linkModuleArtifacts;
+    private boolean linkFailed;
+    private int linked;
+
+    ProvisioningCache(Path cacheDir, Log log) {
+        this(cacheDir, log, false);
+    }
+
+    ProvisioningCache(Path cacheDir, Log log, boolean linkModuleArtifacts) {
+        this.cacheDir = cacheDir;
+        this.log = log;
+        this.linkModuleArtifacts = linkModuleArtifacts;
+    }
+
+    /**
+     * The number of JBoss Modules JAR files hard linked so far.
+     */
+    int getLinked() {
+        return linked;
+    }
+
+    /**
+     * Compute the key of a provisioned server.
+     *
+     * @param provisioningConfig The effective provisioning configuration file.
+     * @param featurePacks Feature-pack files whose content impacts the
+     * provisioned server, e.g. local feature-packs that can be rebuilt without
+     * changing their version.
+     * @param extra Any other input that impacts the provisioned server.
+     */
+    static String computeKey(Path provisioningConfig, Collection<Path> featurePacks, String... extra) throws IOException {
+        List<String> inputs = new ArrayList<>();
+        for (Path fp : featurePacks) {
+            inputs.add(fp.getFileName().toString());
+            inputs.add(DeploymentContent.hash(fp));
+        }
+        for (String e : extra) {
+            inputs.add(e);
+        }
+        return computeKey(provisioningConfig, inputs.toArray(new String[0]));
+    }
+
+    /**
+     * Compute the key of a provisioned server.
+     *
+     * @param provisioningConfig The effective provisioning configuration file.
+     * @param extra Any other input that impacts the provisioned server.
+     */
+    static String computeKey(Path provisioningConfig, String... extra) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        digest.update(Files.readAllBytes(provisioningConfig));
+        for (String e : extra) {
+            digest.update((byte) 0);
+            digest.update(String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+        }
+        StringBuilder builder = new StringBuilder();
+        for (byte b : digest.digest()) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Copy a cached server into the home directory.
+     *
+     * @return The scanned artifacts of the cached server or null if no server
+     * is cached for this key.
+     */
+    ScannedArtifacts restore(String key, Path home) throws IOException {
+        Path entry = cacheDir.resolve(key);
+        Path scannedFile = entry.resolve(SCANNED_ARTIFACTS);
+        if (!Files.exists(scannedFile)) {
+            return null;
+        }
+        ScannedArtifacts scanned;
+        try {
+            scanned = readScannedArtifacts(scannedFile);
+        } catch (MavenUniverseException ex) {
+            log.warn("Ignoring invalid provisioning cache entry " + entry + ": " + ex.getLocalizedMessage());
+            return null;
+        }
+        IoUtils.recursiveDelete(home);
+        copyTree(entry.resolve(WILDFLY), home);
+        // Mark the entry as recently used.
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        return scanned;
+    }
+
+    /**
+     * Store a provisioned server in the cache.
+     */
+    void store(String key, Path home, ScannedArtifacts scanned) throws IOException {
+        Files.createDirectories(cacheDir);
+        Path entry = cacheDir.resolve(key);
+        if (Files.exists(entry)) {
+            return;
+        }
+        Path tmp = cacheDir.resolve(TMP_PREFIX + UUID.randomUUID());
+        try {
+            copyTree(home, tmp.resolve(WILDFLY));
+            writeScannedArtifacts(scanned, tmp.resolve(SCANNED_ARTIFACTS));
+            try {
+                Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, entry);
+            }
+        } catch (FileAlreadyExistsException ex) {
+            // Stored by a concurrent build.
+        } catch (IOException ex) {
+            if (Files.exists(entry)) {
+                // Stored by a concurrent build.
+                log.debug("Provisioning cache entry " + entry + " already exists");
+            } else {
+                throw ex;
+            }
+        } finally {
+            IoUtils.recursiveDelete(tmp);
+        }
+        evict();
+    }
+
+    private void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+            for (Path p : stream) {
+                if (Files.isDirectory(p) && !p.getFileName().toString().startsWith(TMP_PREFIX)) {
+                    entries.add(p);
+                }
+            }
+        }
+        if (entries.size() <= MAX_ENTRIES) {
+            return;
+        }
+        entries.sort(Comparator.comparing((Path p) -> {
+            try {
+                return Files.getLastModifiedTime(p);
+            } catch (IOException ex) {
+                return FileTime.fromMillis(0);
+            }
+        }).reversed());
+        for (Path p : entries.subList(MAX_ENTRIES, entries.size())) {
+            log.debug("Evicting provisioning cache entry " + p);
+            IoUtils.recursiveDelete(p);
+        }
+    }
+
+    private static ScannedArtifacts readScannedArtifacts(Path file) throws IOException, MavenUniverseException {
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        return readScannedArtifacts(props);
+    }
+
+    private static void writeScannedArtifacts(ScannedArtifacts scanned, Path file) throws IOException {
+        Properties props = new Properties();
+        writeScannedArtifacts(scanned, props);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            props.store(out, null);
+        }
+    }
+
+    static ScannedArtifacts readScannedArtifacts(Properties props) throws MavenUniverseException {
+        String boot = props.getProperty(BOOT);
+        String jbossModules = props.getProperty(JBOSS_MODULES);
+        if (boot == null || jbossModules == null) {
+            throw new MavenUniverseException("Missing boot or JBoss Modules artifact");
+        }
+        Set<MavenArtifact> cli = new LinkedHashSet<>();
+        for (int i = 0; props.containsKey(CLI + i); i++) {
+            cli.add(MavenArtifact.fromString(props.getProperty(CLI + i)));
+        }
+        return new ScannedArtifacts(MavenArtifact.fromString(boot), MavenArtifact.fromString(jbossModules), cli);
+    }
+
+    static void writeScannedArtifacts(ScannedArtifacts scanned, Properties props) {
+        props.setProperty(BOOT, scanned.getBoot().getCoordsAsString());
+        props.setProperty(JBOSS_MODULES, scanned.getJbossModules().getCoordsAsString());
+        int i = 0;
+        for (MavenArtifact a : scanned.getCliArtifacts()) {
+            props.setProperty(CLI + i, a.getCoordsAsString());
+            i += 1;
+        }
+    }
+
+    private void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = source.relativize(file);
+                Path targetFile = target.resolve(relative.toString());
+                if (!isModuleArtifact(relative) || !link(file, targetFile)) {
+                    Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private boolean isModuleArtifact(Path relative) {
+        return linkModuleArtifacts && relative.getNameCount() > 1 && MODULES.equals(relative.getName(0).toString())
+                && relative.getFileName().toString().endsWith(JAR);
+    }
+
+    private boolean link(Path file, Path targetFile) {
+        if (linkFailed) {
+            return false;
+        }
+        try {
+            Files.createLink(targetFile, file);
+            linked += 1;
+            return true;
+        } catch (IOException | UnsupportedOperationException ex) {
+            // Not supported by the file system or the cache is on another file system.
+            log.debug("Can't hard link " + file + ", copying module artifacts: " + ex);
+            linkFailed = true;
+            return false;
+        }
+    }
+}
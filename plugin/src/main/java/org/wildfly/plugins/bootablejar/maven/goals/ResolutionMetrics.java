@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.jboss.galleon.api.MavenStreamResolver;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
+import org.wildfly.channel.spi.ChannelResolvable;
+
+/**
+ * A {@link MavenRepoManager} recording the resolution of each artifact: time
+ * spent, size of the resolved file and where the artifact comes from. An
+ * artifact whose file has been written during the resolution has been
+ * downloaded, otherwise it comes from the local repository.
+ */
+class ResolutionMetrics implements MavenRepoManager {
+
+    static final String LOCAL = "local";
+    static final String DOWNLOADED = "downloaded";
+    static final String ORIGINAL_VERSION = "original-version";
+    static final String FAILED = "failed";
+
+    static final class Resolution {
+
+        private final String artifact;
+        private final String source;
+        private final long bytes;
+        private long nanos;
+        private int calls;
+
+        private Resolution(String artifact, String source, long bytes, long nanos) {
+            this.artifact = artifact;
+            this.source = source;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.calls = 1;
+        }
+
+        String getArtifact() {
+            return artifact;
+        }
+
+        String getSource() {
+            return source;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        int getCalls() {
+            return calls;
+        }
+    }
+
+    /**
+     * The channel resolution advertised to Galleon must be kept.
+     */
+    private static final class Channel extends ResolutionMetrics implements ChannelResolvable, MavenStreamResolver {
+
+        private final MavenStreamResolver streamResolver;
+
+        private Channel(ChannelMavenArtifactRepositoryManager delegate) {
+            super(delegate, delegate::isOriginalVersion);
+            this.streamResolver = delegate;
+        }
+
+        @Override
+        public String getLatestVersion(String groupId, String artifactId, String extension, String classifier, String baseVersion) {
+            return streamResolver.getLatestVersion(groupId, artifactId, extension, classifier, baseVersion);
+        }
+    }
+
+    private final MavenRepoManager delegate;
+    private final Predicate<String> originalVersion;
+    private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    private ResolutionMetrics(MavenRepoManager delegate, Predicate<String> originalVersion) {
+        this.delegate = delegate;
+        this.originalVersion = originalVersion;
+    }
+
+    static ResolutionMetrics wrap(MavenRepoManager delegate) {
+        if (delegate instanceof ChannelMavenArtifactRepositoryManager) {
+            return new Channel((ChannelMavenArtifactRepositoryManager) delegate);
+        }
+        return new ResolutionMetrics(delegate, a -> false);
+    }
+
+    @Override
+    public void resolve(MavenArtifact artifact) throws MavenUniverseException {
+        String requested = ChannelMavenArtifactRepositoryManager.toKey(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getExtension(), artifact.getClassifier(), artifact.getVersion());
+        // File times can be truncated to the second.
+        long time = System.currentTimeMillis() / 1000 * 1000;
+        long start = System.nanoTime();
+        try {
+            delegate.resolve(artifact);
+        } catch (MavenUniverseException | RuntimeException ex) {
+            record(artifact.getCoordsAsString(), FAILED, 0, System.nanoTime() - start);
+            throw ex;
+        }
+        long nanos = System.nanoTime() - start;
+        String source = LOCAL;
+        long bytes = 0;
+        Path path = artifact.getPath();
+        if (path != null) {
+            try {
+                bytes = Files.size(path);
+                if (Files.getLastModifiedTime(path).toMillis() >= time) {
+                    source = DOWNLOADED;
+                }
+            } catch (IOException ex) {
+                // The file is reported as coming from the local repository.
+            }
+        }
+        if (originalVersion.test(requested)) {
+            source = ORIGINAL_VERSION;
+        }
+        record(artifact.getCoordsAsString(), source, bytes, nanos);
+    }
+
+    private void record(String artifact, String source, long bytes, long nanos) {
+        resolutions.merge(artifact, new Resolution(artifact, source, bytes, nanos), (existing, added) -> {
+            synchronized (existing) {
+                existing.nanos += added.nanos;
+                existing.calls += 1;
+            }
+            return existing;
+        });
+    }
+
+    /**
+     * @return The resolved artifacts, the slowest first.
+     */
+    List<Resolution> getResolutions() {
+        List<Resolution> list = new ArrayList<>(resolutions.values());
+        list.sort(Comparator.comparingLong((Resolution r) -> r.nanos).reversed().thenComparing(Resolution::getArtifact));
+        return list;
+    }
+
+    /**
+     * Write the report, a line per artifact, the slowest first, and return a
+     * summary.
+     */
+    String writeReport(Path report) throws IOException {
+        List<Resolution> list = getResolutions();
+        long millis = 0;
+        long downloadedBytes = 0;
+        Map<String, Integer> sources = new HashMap<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("# time(ms) calls size(bytes) source artifact");
+            writer.newLine();
+            for (Resolution r : list) {
+                millis += r.getMillis();
+                if (DOWNLOADED.equals(r.getSource())) {
+                    downloadedBytes += r.getBytes();
+                }
+                sources.merge(r.getSource(), 1, Integer::sum);
+                writer.write(r.getMillis() + " " + r.getCalls() + " " + r.getBytes() + " " + r.getSource() + " " + r.getArtifact());
+                writer.newLine();
+            }
+        }
+        return list.size() + " artifacts resolved in " + millis + "ms, " + sources.getOrDefault(LOCAL, 0)
+                + " from the local repository, " + sources.getOrDefault(DOWNLOADED, 0) + " downloaded ("
+                + downloadedBytes / 1024 + " KB), " + sources.getOrDefault(ORIGINAL_VERSION, 0)
+                + " using the original version, " + sources.getOrDefault(FAILED, 0) + " failed";
+    }
+
+    @Override
+    public boolean isResolved(MavenArtifact artifact) throws MavenUniverseException {
+        return delegate.isResolved(artifact);
+    }
+
+    @Override
+    public boolean isLatestVersionResolved(MavenArtifact artifact, String lowestQualifier) throws MavenUniverseException {
+        return delegate.isLatestVersionResolved(artifact, lowestQualifier);
+    }
+
+    @Override
+    public void resolveLatestVersion(MavenArtifact artifact, String lowestQualifier, Pattern includeVersion,
+            Pattern excludeVersion) throws MavenUniverseException {
+        delegate.resolveLatestVersion(artifact, lowestQualifier, includeVersion, excludeVersion);
+    }
+
+    @Override
+    public void resolveLatestVersion(MavenArtifact artifact, String lowestQualifier, boolean locallyAvailable)
+            throws MavenUniverseException {
+        delegate.resolveLatestVersion(artifact, lowestQualifier, locallyAvailable);
+    }
+
+    @Override
+    public String getLatestVersion(MavenArtifact artifact) throws MavenUniverseException {
+        return delegate.getLatestVersion(artifact);
+    }
+
+    @Override
+    public String getLatestVersion(MavenArtifact artifact, String lowestQualifier) throws MavenUniverseException {
+        return delegate.getLatestVersion(artifact, lowestQualifier);
+    }
+
+    @Override
+    public String getLatestVersion(MavenArtifact artifact, String lowestQualifier, Pattern includeVersion,
+            Pattern excludeVersion) throws MavenUniverseException {
+        return delegate.getLatestVersion(artifact, lowestQualifier, includeVersion, excludeVersion);
+    }
+
+    @Override
+    public List<String> getAllVersions(MavenArtifact artifact) throws MavenUniverseException {
+        return delegate.getAllVersions(artifact);
+    }
+
+    @Override
+    public List<String> getAllVersions(MavenArtifact artifact, Pattern includeVersion, Pattern excludeVersion)
+            throws MavenUniverseException {
+        return delegate.getAllVersions(artifact, includeVersion, excludeVersion);
+    }
+
+    @Override
+    public void install(MavenArtifact artifact, Path path) throws MavenUniverseException {
+        delegate.install(artifact, path);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.apache.maven.plugin.logging.Log;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.wildfly.plugin.tools.bootablejar.ScannedArtifacts;
+
+/**
+ * A persistent index of the artifacts scanned from feature-packs. Entries are
+ * keyed by a hash of the provisioning configuration and of the content of the
+ * feature-pack files, so the index can be shared between projects and
+ * SNAPSHOT feature-packs are scanned again when their content changes.
+ *
+ * An entry holds the scanned module templates and tasks or the scanned
+ * bootable JAR artifacts. Entries are written in a temporary file then
+ * renamed, only the most recently used entries are kept.
+ */
+final class ScanIndex {
+
+    private static final String MODULES_SUFFIX = "-modules.properties";
+    private static final String ARTIFACTS_SUFFIX = "-artifacts.properties";
+    private static final String TMP_PREFIX = ".tmp-";
+    private static final String MODULE_RUNTIME = "module-runtime";
+    private static final String MODULE = "module.";
+    private static final String COPIED = "copied";
+    private static final String NAME = ".name";
+    private static final String KEY = ".key.";
+    private static final String VALUE = ".value.";
+    private static final int MAX_ENTRIES = 50;
+
+    private final Path indexDir;
+    private final Log log;
+
+    ScanIndex(Path indexDir, Log log) {
+        this.indexDir = indexDir;
+        this.log = log;
+    }
+
+    /**
+     * Compute the key of an index entry.
+     *
+     * @param provisioningConfig The provisioning configuration file.
+     * @param featurePacks The resolved feature-pack files.
+     * @param extra Any other input that impacts the scan.
+     */
+    static String computeKey(Path provisioningConfig, Collection<Path> featurePacks, String... extra) throws IOException {
+        return ProvisioningCache.computeKey(provisioningConfig, featurePacks, extra);
+    }
+
+    ScannedModules readModules(String key) throws IOException {
+        Properties props = read(key + MODULES_SUFFIX);
+        if (props == null) {
+            return null;
+        }
+        String moduleRuntime = props.getProperty(MODULE_RUNTIME);
+        if (moduleRuntime == null) {
+            log.warn("Ignoring invalid scan index entry " + indexDir.resolve(key + MODULES_SUFFIX));
+            return null;
+        }
+        Map<String, Map<String, String>> perModule = new TreeMap<>();
+        for (int i = 0; props.containsKey(MODULE + i + NAME); i++) {
+            Map<String, String> artifacts = new TreeMap<>();
+            readEntries(props, MODULE + i, artifacts);
+            perModule.put(props.getProperty(MODULE + i + NAME), artifacts);
+        }
+        Map<String, String> copiedArtifacts = new HashMap<>();
+        readEntries(props, COPIED, copiedArtifacts);
+        return new ScannedModules(perModule, ScannedModules.MODULE_RUNTIME_KEY, moduleRuntime, copiedArtifacts);
+    }
+
+    void writeModules(String key, ScannedModules modules) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(MODULE_RUNTIME, modules.getModuleRuntime());
+        int i = 0;
+        for (Map.Entry<String, Map<String, String>> module : modules.getPerModuleArtifacts().entrySet()) {
+            props.setProperty(MODULE + i + NAME, module.getKey());
+            writeEntries(props, MODULE + i, module.getValue());
+            i += 1;
+        }
+        writeEntries(props, COPIED, modules.getCopiedArtifacts());
+        write(key + MODULES_SUFFIX, props);
+    }
+
+    ScannedArtifacts readArtifacts(String key) throws IOException {
+        Properties props = read(key + ARTIFACTS_SUFFIX);
+        if (props == null) {
+            return null;
+        }
+        try {
+            return ProvisioningCache.readScannedArtifacts(props);
+        } catch (MavenUniverseException ex) {
+            log.warn("Ignoring invalid scan index entry " + indexDir.resolve(key + ARTIFACTS_SUFFIX) + ": "
+                    + ex.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    void writeArtifacts(String key, ScannedArtifacts scanned) throws IOException {
+        Properties props = new Properties();
+        ProvisioningCache.writeScannedArtifacts(scanned, props);
+        write(key + ARTIFACTS_SUFFIX, props);
+    }
+
+    // Null values, artifacts without a known version, have no value entry.
+    private static void writeEntries(Properties props, String prefix, Map<String, String> entries) {
+        int j = 0;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            props.setProperty(prefix + KEY + j, entry.getKey());
+            if (entry.getValue() != null) {
+                props.setProperty(prefix + VALUE + j, entry.getValue());
+            }
+            j += 1;
+        }
+    }
+
+    private static void readEntries(Properties props, String prefix, Map<String, String> entries) {
+        for (int j = 0; props.containsKey(prefix + KEY + j); j++) {
+            entries.put(props.getProperty(prefix + KEY + j), props.getProperty(prefix + VALUE + j));
+        }
+    }
+
+    private Properties read(String name) throws IOException {
+        Path file = indexDir.resolve(name);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        // Mark the entry as recently used.
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        return props;
+    }
+
+    private void write(String name, Properties props) throws IOException {
+        Files.createDirectories(indexDir);
+        Path file = indexDir.resolve(name);
+        Path tmp = indexDir.resolve(TMP_PREFIX + UUID.randomUUID());
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        evict();
+    }
+
+    private void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(indexDir)) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p) && !p.getFileName().toString().startsWith(TMP_PREFIX)) {
+                    entries.add(p);
+                }
+            }
+        }
+        if (entries.size() <= MAX_ENTRIES) {
+            return;
+        }
+        entries.sort(Comparator.comparing((Path p) -> {
+            try {
+                return Files.getLastModifiedTime(p);
+            } catch (IOException ex) {
+                return FileTime.fromMillis(0);
+            }
+        }).reversed());
+        for (Path p : entries.subList(MAX_ENTRIES, entries.size())) {
+            log.debug("Evicting scan index entry " + p);
+            Files.deleteIfExists(p);
+        }
+    }
+}
@@ -23,25 +23,27 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.stream.IntStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.jboss.galleon.MessageWriter;
 import org.jboss.galleon.ProvisioningException;
 import org.jboss.galleon.api.GalleonFeaturePackRuntime;
 import org.jboss.galleon.api.GalleonPackageRuntime;
 import org.jboss.galleon.api.GalleonProvisioningRuntime;
-import org.jboss.galleon.api.Provisioning;
-import org.jboss.galleon.api.config.GalleonProvisioningConfig;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import org.jboss.galleon.universe.maven.MavenArtifact;
 import org.wildfly.plugin.tools.bootablejar.BootableJarSupport;
-import org.xml.sax.SAXException;
+import org.wildfly.plugin.tools.bootablejar.ScannedArtifacts;
 
 final class ScannedModules {
 
@@ -50,7 +52,32 @@ final class ScannedModules {
     private static final String WILDFLY = "wildfly";
     private static final String MODULE = "module";
     private static final String TASKS_XML = "tasks.xml";
-    private static final String MODULE_RUNTIME_KEY = "org.jboss.modules:jboss-modules";
+    static final String MODULE_RUNTIME_KEY = "org.jboss.modules:jboss-modules";
+    private static final String COPY_ARTIFACT = "copy-artifact";
+    private static final String RESOURCES = "resources";
+    private static final String ARTIFACT = "artifact";
+    private static final String DEPENDENCY = "dependency";
+    private static final String BOOTABLE_JAR_PACKAGE = "org.wildfly.bootable-jar";
+    private static final String BOOT_ARTIFACT_ID = "wildfly-jar-boot";
+    private static final String SHADED_CLI_PACKAGE = "org.wildfly.core.wildfly-cli.shaded";
+    // Module templates and tasks are parsed with a single factory.
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    @FunctionalInterface
+    interface Scan<T, R> {
+        R apply(T item) throws ProvisioningException;
+    }
+
+    private static final class PackageContent {
+
+        private final GalleonPackageRuntime pkg;
+        private final List<Path> modules = new ArrayList<>();
+        private final Map<String, String> copiedArtifacts = new HashMap<>();
+
+        private PackageContent(GalleonPackageRuntime pkg) {
+            this.pkg = pkg;
+        }
+    }
 
     private final Map<String, Map<String, String>> perModule;
     private final Map<String, String> copiedArtifacts;
@@ -87,24 +114,25 @@ final class ScannedModules {
         return all;
     }
 
-    static ScannedModules scanProvisionedArtifacts(Provisioning pm, GalleonProvisioningConfig config)
+    /**
+     * Scan the modules of a provisioning runtime, the runtime is not closed.
+     */
+    static ScannedModules scanProvisionedArtifacts(GalleonProvisioningRuntime rt)
             throws ProvisioningException, MojoExecutionException {
         Map<String, String> propsMap = new HashMap<>();
         Map<String, Map<String, String>> perModule = new TreeMap<>();
         Map<String, String> copiedArtifacts = new HashMap<>();
-        try (GalleonProvisioningRuntime rt = pm.getProvisioningRuntime(config)) {
-            for (GalleonFeaturePackRuntime fprt : rt.getGalleonFeaturePacks()) {
-                Path artifactProps = fprt.getResource(BootableJarSupport.WILDFLY_ARTIFACT_VERSIONS_RESOURCE_PATH);
-                try {
-                    AbstractBuildBootableJarMojo.readProperties(artifactProps, propsMap);
-                } catch (Exception ex) {
-                    throw new MojoExecutionException("Error reading artifact versions", ex);
-                }
-            }
-            for (GalleonFeaturePackRuntime fprt : rt.getGalleonFeaturePacks()) {
-                processPackages(fprt, perModule, propsMap, copiedArtifacts);
+        for (GalleonFeaturePackRuntime fprt : rt.getGalleonFeaturePacks()) {
+            Path artifactProps = fprt.getResource(BootableJarSupport.WILDFLY_ARTIFACT_VERSIONS_RESOURCE_PATH);
+            try {
+                AbstractBuildBootableJarMojo.readProperties(artifactProps, propsMap);
+            } catch (Exception ex) {
+                throw new MojoExecutionException("Error reading artifact versions", ex);
             }
         }
+        for (GalleonFeaturePackRuntime fprt : rt.getGalleonFeaturePacks()) {
+            processPackages(fprt, perModule, propsMap, copiedArtifacts);
+        }
 
         String moduleRuntimeValue = propsMap.get(MODULE_RUNTIME_KEY);
         if (moduleRuntimeValue == null) {
@@ -113,56 +141,224 @@ final class ScannedModules {
         return new ScannedModules(perModule, MODULE_RUNTIME_KEY, moduleRuntimeValue, copiedArtifacts);
     }
 
+    /**
+     * Scan the artifacts packaged in the bootable JAR as
+     * {@link BootableJarSupport#scanArtifacts} does, but from a runtime owned
+     * by the caller, the runtime is not closed.
+     */
+    static ScannedArtifacts scanArtifacts(GalleonProvisioningRuntime rt, MessageWriter writer)
+            throws ProvisioningException {
+        Set<MavenArtifact> cliArtifacts = new HashSet<>();
+        MavenArtifact jbossModules = null;
+        MavenArtifact boot = null;
+        for (GalleonFeaturePackRuntime fprt : rt.getGalleonFeaturePacks()) {
+            Path artifactProps = fprt.getResource(BootableJarSupport.WILDFLY_ARTIFACT_VERSIONS_RESOURCE_PATH);
+            Map<String, String> propsMap = new HashMap<>();
+            try {
+                AbstractBuildBootableJarMojo.readProperties(artifactProps, propsMap);
+            } catch (Exception ex) {
+                throw new ProvisioningException("Error reading artifact versions", ex);
+            }
+            if (fprt.getGalleonPackage(BOOTABLE_JAR_PACKAGE) != null) {
+                for (String value : propsMap.values()) {
+                    MavenArtifact artifact = parseArtifact(value);
+                    if (BOOT_ARTIFACT_ID.equals(artifact.getArtifactId())) {
+                        if (writer.isVerboseEnabled()) {
+                            writer.verbose("Found %s in %s", artifact, fprt.getFPID());
+                        }
+                        boot = artifact;
+                        break;
+                    }
+                }
+            }
+            GalleonPackageRuntime shaded = fprt.getGalleonPackage(SHADED_CLI_PACKAGE);
+            if (shaded != null) {
+                Path shadedModel = shaded.getResource(PM, WILDFLY, "shaded", "shaded-model.xml");
+                try {
+                    cliArtifacts.addAll(readShadedArtifacts(shadedModel, propsMap));
+                } catch (IOException | XMLStreamException ex) {
+                    throw new ProvisioningException("Failed to read the shaded CLI model of feature-pack "
+                            + fprt.getFPID(), ex);
+                }
+            }
+            for (String value : propsMap.values()) {
+                MavenArtifact artifact = parseArtifact(value);
+                if (cliArtifacts.isEmpty() && "wildfly-cli".equals(artifact.getArtifactId())
+                        && "org.wildfly.core".equals(artifact.getGroupId())) {
+                    // No shaded CLI, the client JAR is used.
+                    artifact.setClassifier("client");
+                    if (writer.isVerboseEnabled()) {
+                        writer.verbose("Found %s in %s", artifact, fprt.getFPID());
+                    }
+                    cliArtifacts.add(artifact);
+                } else if (BootableJarSupport.JBOSS_MODULES_ARTIFACT_ID.equals(artifact.getArtifactId())
+                        && BootableJarSupport.JBOSS_MODULES_GROUP_ID.equals(artifact.getGroupId())) {
+                    jbossModules = artifact;
+                }
+            }
+        }
+        if (boot == null) {
+            throw new ProvisioningException("Server doesn't support bootable jar packaging");
+        }
+        if (jbossModules == null) {
+            throw new ProvisioningException("JBoss Modules not found in dependency, can't create a Bootable JAR");
+        }
+        return new ScannedArtifacts(boot, jbossModules, cliArtifacts);
+    }
+
+    /**
+     * The artifacts of the shaded CLI model {@code dependency} elements, with
+     * the versions of the feature-pack.
+     */
+    static List<MavenArtifact> readShadedArtifacts(Path shadedModel, Map<String, String> propsMap)
+            throws IOException, XMLStreamException {
+        List<MavenArtifact> artifacts = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(shadedModel)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && DEPENDENCY.equals(reader.getLocalName())) {
+                        MavenArtifact dependency = parseArtifact(reader.getElementText());
+                        String key = dependency.getGroupId() + ":" + dependency.getArtifactId();
+                        if (dependency.getClassifier() != null && !dependency.getClassifier().isEmpty()) {
+                            key += "::" + dependency.getClassifier();
+                        }
+                        String value = propsMap.get(key);
+                        if (value == null) {
+                            throw new IOException("No version for shaded CLI dependency " + key);
+                        }
+                        artifacts.add(parseArtifact(value));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return artifacts;
+    }
+
+    private static MavenArtifact parseArtifact(String str) {
+        String[] parts = str.split(":");
+        if (parts.length < 5) {
+            throw new IllegalArgumentException("Unexpected artifact coordinates format: " + str);
+        }
+        MavenArtifact artifact = new MavenArtifact();
+        artifact.setGroupId(parts[0]);
+        artifact.setArtifactId(parts[1]);
+        artifact.setVersion(parts[2]);
+        artifact.setClassifier(parts[3]);
+        artifact.setExtension(parts[4]);
+        return artifact;
+    }
+
     private static void processPackages(final GalleonFeaturePackRuntime fp,
             Map<String, Map<String, String>> perModule,
             Map<String, String> propsMap,
             Map<String, String> copiedArtifacts) throws ProvisioningException {
+        // Packages and then module templates are scanned in parallel, the
+        // results are merged in the order of the sequential scan.
+        List<GalleonPackageRuntime> packages = new ArrayList<>(fp.getGalleonPackages());
+        List<PackageContent> contents = scanAll(packages, pkg -> scanPackage(pkg, propsMap));
         Map<Path, GalleonPackageRuntime> jbossModules = new HashMap<>();
-        for (GalleonPackageRuntime pkg : fp.getGalleonPackages()) {
-            final Path pmWfDir = pkg.getResource(PM, WILDFLY);
-            if (!Files.exists(pmWfDir)) {
-                continue;
+        for (PackageContent content : contents) {
+            for (Path module : content.modules) {
+                jbossModules.put(module, content.pkg);
             }
-            final Path moduleDir = pmWfDir.resolve(MODULE);
-            if (Files.exists(moduleDir)) {
-                processModules(pkg, moduleDir, jbossModules);
-            }
-            final Path tasks = pmWfDir.resolve(TASKS_XML);
-            if (Files.exists(tasks)) {
-               processTasks(pkg, tasks, propsMap, copiedArtifacts);
+            copiedArtifacts.putAll(content.copiedArtifacts);
+        }
+        List<Map.Entry<Path, GalleonPackageRuntime>> templates = new ArrayList<>(jbossModules.entrySet());
+        List<List<String>> templateArtifacts = scanAll(templates,
+                entry -> processModuleTemplate(entry.getValue(), entry.getKey()));
+        for (int i = 0; i < templates.size(); i++) {
+            GalleonPackageRuntime pkg = templates.get(i).getValue();
+            for (String name : templateArtifacts.get(i)) {
+                Map<String, String> m = perModule.get(pkg.getName());
+                if (m == null) {
+                    m = new TreeMap<>();
+                    perModule.put(pkg.getName(), m);
+                }
+                String value = propsMap.get(name);
+                m.put(name, value);
             }
         }
-        for (Map.Entry<Path, GalleonPackageRuntime> entry : jbossModules.entrySet()) {
-            final GalleonPackageRuntime pkg = entry.getValue();
+    }
+
+    private static PackageContent scanPackage(GalleonPackageRuntime pkg, Map<String, String> propsMap)
+            throws ProvisioningException {
+        PackageContent content = new PackageContent(pkg);
+        final Path pmWfDir = pkg.getResource(PM, WILDFLY);
+        if (!Files.exists(pmWfDir)) {
+            return content;
+        }
+        final Path moduleDir = pmWfDir.resolve(MODULE);
+        if (Files.exists(moduleDir)) {
+            processModules(pkg, moduleDir, content.modules);
+        }
+        final Path tasks = pmWfDir.resolve(TASKS_XML);
+        if (Files.exists(tasks)) {
+           processTasks(pkg, tasks, propsMap, content.copiedArtifacts);
+        }
+        return content;
+    }
+
+    /**
+     * Apply the scan to all the items in the common fork-join pool.
+     *
+     * @return The results, in the order of the items.
+     */
+    static <T, R> List<R> scanAll(List<T> items, Scan<T, R> scan) throws ProvisioningException {
+        Object[] results = new Object[items.size()];
+        Exception[] errors = new Exception[items.size()];
+        IntStream.range(0, items.size()).parallel().forEach(i -> {
             try {
-                processModuleTemplate(pkg, entry.getKey(), perModule, propsMap);
-            } catch (IOException | ParserConfigurationException | ProvisioningException | SAXException e) {
-                throw new ProvisioningException("Failed to process JBoss module XML template for feature-pack "
-                        + pkg.getFeaturePackFPID() + " package " + pkg.getName(), e);
+                results[i] = scan.apply(items.get(i));
+            } catch (ProvisioningException | RuntimeException ex) {
+                errors[i] = ex;
+            }
+        });
+        List<R> list = new ArrayList<>(items.size());
+        for (int i = 0; i < results.length; i++) {
+            if (errors[i] instanceof ProvisioningException) {
+                throw (ProvisioningException) errors[i];
             }
+            if (errors[i] != null) {
+                throw (RuntimeException) errors[i];
+            }
+            @SuppressWarnings("unchecked")
+            R result = (R) results[i];
+            list.add(result);
         }
+        return list;
     }
 
     private static void processTasks(GalleonPackageRuntime pkg, Path tasks, Map<String, String> propsMap,
             Map<String, String> artifacts) throws ProvisioningException {
         try {
-            try (InputStream reader = Files.newInputStream(tasks)) {
-                DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-
-                Document document = documentBuilder.parse(reader);
-                Element root = document.getDocumentElement();
-                NodeList lst = root.getChildNodes();
-                for (int i = 0; i < lst.getLength(); i++) {
-                    Node n = lst.item(i);
-                    if (n instanceof Element) {
-                        if ("copy-artifact".equals(n.getNodeName())) {
-                            Element copyArtifact = (Element) n;
-                            String artifact = copyArtifact.getAttribute("artifact");
-                            String optional = copyArtifact.getAttribute("optional");
+            readTasks(tasks, propsMap, artifacts);
+        } catch (XMLStreamException | IOException e) {
+            throw new ProvisioningException("Failed to process tasks from package " + pkg.getName()
+                    + " from feature-pack " + pkg.getFeaturePackFPID(), e);
+        }
+    }
+
+    /**
+     * Add the artifacts of the {@code copy-artifact} tasks.
+     */
+    static void readTasks(Path tasks, Map<String, String> propsMap, Map<String, String> artifacts)
+            throws IOException, XMLStreamException {
+        try (InputStream in = Files.newInputStream(tasks)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth += 1;
+                        if (depth == 2 && COPY_ARTIFACT.equals(reader.getLocalName())) {
+                            String artifact = getAttribute(reader, "artifact");
                             String value = propsMap.get(artifact);
                             if (value == null) {
-                                if ("true".equals(optional)) {
+                                if ("true".equals(getAttribute(reader, "optional"))) {
                                     // Could be unknown.
                                     artifacts.put(artifact, artifact + ":unknown::jar");
                                 }
@@ -170,24 +366,25 @@ final class ScannedModules {
                                 artifacts.put(artifact, value);
                             }
                         }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth -= 1;
                     }
                 }
+            } finally {
+                reader.close();
             }
-        } catch (SAXException | ParserConfigurationException | IOException e) {
-            throw new ProvisioningException("Failed to process tasks from package " + pkg.getName()
-                    + " from feature-pack " + pkg.getFeaturePackFPID(), e);
         }
     }
 
     private static void processModules(GalleonPackageRuntime pkg, Path fpModuleDir,
-            Map<Path, GalleonPackageRuntime> jbossModules) throws ProvisioningException {
+            List<Path> jbossModules) throws ProvisioningException {
         try {
             Files.walkFileTree(fpModuleDir, new SimpleFileVisitor<Path>() {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                         throws IOException {
                     if (file.getFileName().toString().equals(MODULE_XML)) {
-                        jbossModules.put(fpModuleDir.relativize(file), pkg);
+                        jbossModules.add(fpModuleDir.relativize(file));
                     }
                     return FileVisitResult.CONTINUE;
                 }
@@ -198,44 +395,64 @@ final class ScannedModules {
         }
     }
 
-    private static void processModuleTemplate(GalleonPackageRuntime pkg, Path moduleXmlRelativePath,
-            Map<String, Map<String, String>> perModule, Map<String, String> propsMap) throws ProvisioningException, IOException, ParserConfigurationException, SAXException {
-        final Path moduleTemplate = pkg.getResource(PM, WILDFLY, MODULE).resolve(moduleXmlRelativePath);
-
-        try (InputStream reader = Files.newInputStream(moduleTemplate)) {
-            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-
-            Document document = documentBuilder.parse(reader);
-            Element root = document.getDocumentElement();
-            NodeList lst = root.getChildNodes();
-            for (int i = 0; i < lst.getLength(); i++) {
-                Node n = lst.item(i);
-                if (n instanceof Element) {
-                    if ("resources".equals(n.getNodeName())) {
-                        Element resources = (Element) n;
-                        NodeList artifacts = resources.getChildNodes();
-                        for (int j = 0; j < artifacts.getLength(); j++) {
-                            Node a = artifacts.item(j);
-                            if (a instanceof Element) {
-                                if ("artifact".equals(a.getNodeName())) {
-                                    String name = ((Element) a).getAttribute("name");
-                                    if (name.startsWith("${")) {
-                                        name = name.substring(2, name.length() - 1);
-                                        Map<String, String> m = perModule.get(pkg.getName());
-                                        if (m == null) {
-                                            m = new TreeMap<>();
-                                            perModule.put(pkg.getName(), m);
-                                        }
-                                        String value = propsMap.get(name);
-                                        m.put(name, value);
-                                    }
-                                }
+    private static List<String> processModuleTemplate(GalleonPackageRuntime pkg, Path moduleXmlRelativePath)
+            throws ProvisioningException {
+        try {
+            final Path moduleTemplate = pkg.getResource(PM, WILDFLY, MODULE).resolve(moduleXmlRelativePath);
+            return readModuleArtifacts(moduleTemplate);
+        } catch (IOException | ProvisioningException | XMLStreamException e) {
+            throw new ProvisioningException("Failed to process JBoss module XML template for feature-pack "
+                    + pkg.getFeaturePackFPID() + " package " + pkg.getName(), e);
+        }
+    }
+
+    /**
+     * The artifact expressions of the module {@code resources}, without the
+     * expression delimiters. The parsing stops at the end of the resources.
+     */
+    static List<String> readModuleArtifacts(Path moduleTemplate) throws IOException, XMLStreamException {
+        List<String> names = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(moduleTemplate)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                boolean resources = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth += 1;
+                        if (depth == 2) {
+                            resources = RESOURCES.equals(reader.getLocalName());
+                        } else if (depth == 3 && resources && ARTIFACT.equals(reader.getLocalName())) {
+                            String name = getAttribute(reader, "name");
+                            if (name.startsWith("${")) {
+                                names.add(name.substring(2, name.length() - 1));
                             }
                         }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 2 && resources) {
+                            break;
+                        }
+                        depth -= 1;
                     }
                 }
+            } finally {
+                reader.close();
             }
         }
+        return names;
+    }
+
+    // An absent attribute is an empty value, as with DOM.
+    private static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.api.GalleonProvisioningRuntime;
+import org.jboss.galleon.api.Provisioning;
+import org.jboss.galleon.api.config.GalleonProvisioningConfig;
+
+/**
+ * A provisioning runtime shared by the consumers of the same configuration.
+ * Building a runtime unpacks the feature-packs and resolves the layout, the
+ * runtime is built on first use and only built again when the configuration
+ * changes.
+ *
+ * The consumers are given the runtime and must not close it, the runtime is
+ * closed when this object is closed.
+ */
+final class SharedProvisioningRuntime implements AutoCloseable {
+
+    private final Provisioning provisioning;
+    private GalleonProvisioningConfig config;
+    private GalleonProvisioningRuntime runtime;
+    private int builds;
+
+    SharedProvisioningRuntime(Provisioning provisioning) {
+        this.provisioning = provisioning;
+    }
+
+    /**
+     * Get the runtime for a configuration, building it if the configuration
+     * differs from the one of the current runtime.
+     */
+    GalleonProvisioningRuntime getRuntime(GalleonProvisioningConfig config) throws ProvisioningException {
+        if (runtime == null || !this.config.equals(config)) {
+            close();
+            runtime = provisioning.getProvisioningRuntime(config);
+            this.config = config;
+            builds += 1;
+        }
+        return runtime;
+    }
+
+    /**
+     * The number of runtimes built so far.
+     */
+    int getBuilds() {
+        return builds;
+    }
+
+    @Override
+    public void close() {
+        if (runtime != null) {
+            runtime.close();
+            runtime = null;
+            config = null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CLIBatchTestCase {
+
+    @Test
+    public void testStoreLoad() throws Exception {
+        CLIBatch batch = new CLIBatch();
+        Assert.assertTrue(batch.isEmpty());
+        batch.addSession(Arrays.asList("deploy /tmp/app.war", ""), null, false);
+        Properties props = new Properties();
+        props.setProperty("foo", "bar=baz");
+        batch.addSession(Collections.singletonList("/system-property=foo:add(value=${foo})"), props, true);
+        batch.generateBootLoggingConfig(Paths.get("target", "logging.properties"));
+        Assert.assertFalse(batch.isEmpty());
+
+        Path file = Files.createTempFile("cli-batch", null);
+        try {
+            batch.store(file);
+            CLIBatch loaded = CLIBatch.load(file);
+            Assert.assertEquals(2, loaded.getSessions().size());
+            CLIBatch.Session first = loaded.getSessions().get(0);
+            Assert.assertEquals(Arrays.asList("deploy /tmp/app.war", ""), first.getCommands());
+            Assert.assertTrue(first.getProperties().isEmpty());
+            Assert.assertFalse(first.isResolveExpression());
+            CLIBatch.Session second = loaded.getSessions().get(1);
+            Assert.assertEquals(Collections.singletonList("/system-property=foo:add(value=${foo})"), second.getCommands());
+            Assert.assertEquals(props, second.getProperties());
+            Assert.assertTrue(second.isResolveExpression());
+            Assert.assertTrue(loaded.isGenerateBootLoggingConfig());
+            Assert.assertEquals(Paths.get("target", "logging.properties"), loaded.getOriginalLoggingFile());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testGroupSessions() throws Exception {
+        CLIBatch batch = new CLIBatch();
+        batch.addSession(Collections.singletonList("a"), null, false);
+        batch.addSession(Collections.singletonList("b"), null, false);
+        batch.addSession(Collections.singletonList("c"), null, true);
+        batch.addSession(Collections.singletonList("d"), null, false);
+        List<List<CLIBatch.Session>> groups = CLIBatchRunner.group(batch.getSessions());
+        Assert.assertEquals(3, groups.size());
+        Assert.assertEquals(Arrays.asList(batch.getSessions().get(0), batch.getSessions().get(1)), groups.get(0));
+        Assert.assertEquals(Collections.singletonList(batch.getSessions().get(2)), groups.get(1));
+        Assert.assertEquals(Collections.singletonList(batch.getSessions().get(3)), groups.get(2));
+        Assert.assertTrue(CLIBatchRunner.group(Collections.emptyList()).isEmpty());
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.cli;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CLIWorkerTestCase {
+
+    public static class Echo {
+
+        // Stands for the static state of JBoss Modules.
+        private static int executions;
+
+        public static void main(String[] args) throws Exception {
+            if ("fail".equals(args[3])) {
+                System.out.println("Embedded server failure output");
+                throw new Exception("Failure requested");
+            }
+            if ("slow".equals(args[3])) {
+                Thread.sleep(1000);
+            }
+            executions += 1;
+            String pid = ManagementFactory.getRuntimeMXBean().getName();
+            Files.write(Paths.get(args[1]), (pid + " " + args[3] + " " + executions + " " + args[0])
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("cli-worker-");
+    }
+
+    @After
+    public void cleanup() {
+        CLIWorker.shutdownAll();
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        Object build = new Object();
+        Path home = provision("wildfly");
+        Path output = baseDir.resolve("output");
+        CLIWorker.execute(new String[0], build, Echo.class, home, output, "first");
+        String[] first = read(output);
+        Assert.assertEquals("first", first[1]);
+
+        // Another server provisioned in the same build.
+        Path otherHome = provision("other-wildfly");
+        CLIWorker.execute(new String[0], build, Echo.class, otherHome, output, "second");
+        String[] second = read(output);
+        Assert.assertEquals("second", second[1]);
+        Assert.assertEquals(first[0], second[0]);
+        Assert.assertEquals(otherHome.toString(), second[3]);
+        // Each execution has its own class loader.
+        Assert.assertEquals("1", second[2]);
+
+        // The server has been provisioned again.
+        IoUtils.recursiveDelete(home);
+        provision("wildfly");
+        CLIWorker.execute(new String[0], build, Echo.class, home, output, "third");
+        String[] third = read(output);
+        Assert.assertEquals(first[0], third[0]);
+        Assert.assertEquals("1", third[2]);
+
+        // Another build doesn't reuse the workers of the previous one.
+        CLIWorker.execute(new String[0], new Object(), Echo.class, home, output, "fourth");
+        Assert.assertNotEquals(first[0], read(output)[0]);
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        Object build = new Object();
+        Path home = provision("wildfly");
+        Path output = baseDir.resolve("output");
+        CLIWorker.execute(new String[0], build, Echo.class, home, output, "first");
+        String first = read(output)[0];
+        try {
+            CLIWorker.execute(new String[0], build, Echo.class, home, output, "fail");
+            Assert.fail("Execution should have failed");
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Failure requested"));
+            // The worker output is reported.
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Embedded server failure output"));
+        }
+        // A failed worker is replaced.
+        CLIWorker.execute(new String[0], build, Echo.class, home, output, "second");
+        Assert.assertNotEquals(first, read(output)[0]);
+    }
+
+    @Test
+    public void testRecycle() throws Exception {
+        Object build = new Object();
+        Path home = provision("wildfly");
+        Path output = baseDir.resolve("output");
+        CLIWorker.execute(new String[0], build, Echo.class, home, output, "first");
+        String first = read(output)[0];
+        for (int i = 1; i < CLIWorker.MAX_EXECUTIONS; i++) {
+            CLIWorker.execute(new String[0], build, Echo.class, home, output, "next");
+            Assert.assertEquals(first, read(output)[0]);
+        }
+        CLIWorker.execute(new String[0], build, Echo.class, home, output, "last");
+        Assert.assertNotEquals(first, read(output)[0]);
+    }
+
+    @Test
+    public void testShutdownWaitsForExecution() throws Exception {
+        Path home = provision("wildfly");
+        Path slowOutput = baseDir.resolve("slow-output");
+        Path output = baseDir.resolve("output");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread slow = new Thread(() -> {
+            try {
+                started.countDown();
+                CLIWorker.execute(new String[0], new Object(), Echo.class, home, slowOutput, "slow");
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        slow.start();
+        started.await();
+        Thread.sleep(500);
+        // Another build destroys the worker of the slow execution.
+        CLIWorker.execute(new String[0], new Object(), Echo.class, home, output, "other");
+        slow.join();
+        Assert.assertNull(String.valueOf(failure.get()), failure.get());
+        Assert.assertEquals("slow", read(slowOutput)[1]);
+        Assert.assertEquals("other", read(output)[1]);
+        Assert.assertNotEquals(read(slowOutput)[0], read(output)[0]);
+    }
+
+    private Path provision(String name) throws IOException {
+        Path home = baseDir.resolve(name);
+        Files.createDirectories(home.resolve("modules"));
+        return home;
+    }
+
+    private static String[] read(Path output) throws IOException {
+        return new String(Files.readAllBytes(output), StandardCharsets.UTF_8).split(" ");
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModulePrunerTestCase {
+
+    private static final String PRIVATE = "<properties><property name=\"jboss.api\" value=\"private\"/></properties>";
+
+    private Path baseDir;
+    private Path wildflyDir;
+    private Path layerDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("module-pruner-");
+        wildflyDir = baseDir.resolve("wildfly");
+        layerDir = wildflyDir.resolve("modules").resolve("system").resolve("layers").resolve("base");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testPrune() throws Exception {
+        module(layerDir, "org.jboss.as.standalone", PRIVATE, "org.jboss.as.server");
+        module(layerDir, "org.jboss.as.server", PRIVATE);
+        module(layerDir, "org.foo.ext", PRIVATE, "org.foo.impl\" optional=\"true");
+        module(layerDir, "org.foo.impl", PRIVATE);
+        module(layerDir, "org.foo.driver", PRIVATE);
+        module(layerDir, "org.unused", PRIVATE, "org.unused.dep");
+        module(layerDir, "org.unused.dep", PRIVATE);
+        module(layerDir, "org.public.api", "");
+        module(layerDir, "org.deployment", PRIVATE);
+        module(layerDir, "org.manifest", PRIVATE);
+        module(layerDir, "org.excluded", PRIVATE);
+        module(layerDir, "org.kept", PRIVATE);
+        module(layerDir, "org.other.dep", PRIVATE);
+        alias("org.unused.alias", "org.unused");
+        alias("org.server.alias", "org.jboss.as.server");
+        module(wildflyDir.resolve("modules").resolve("system").resolve("layers").resolve("other"), "org.other", PRIVATE,
+                "org.other.dep");
+
+        Path config = wildflyDir.resolve("standalone").resolve("configuration");
+        Files.createDirectories(config);
+        Files.write(config.resolve("standalone.xml"), ("<server><extensions><extension module=\"org.foo.ext\"/></extensions>"
+                + "<profile><subsystem><drivers><driver name=\"foo\" module=\"org.foo.driver\"/></drivers></subsystem></profile>"
+                + "</server>").getBytes(StandardCharsets.UTF_8));
+        Path content = wildflyDir.resolve("standalone").resolve("data").resolve("content").resolve("ab").resolve("cdef");
+        Files.createDirectories(content);
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(content.resolve("content")))) {
+            zip.putNextEntry(new ZipEntry("WEB-INF/jboss-deployment-structure.xml"));
+            zip.write(("<jboss-deployment-structure><deployment><dependencies><module name=\"org.deployment\"/></dependencies>"
+                    + "<exclusions><module name=\"org.excluded\"/></exclusions></deployment></jboss-deployment-structure>")
+                    .getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("WEB-INF/lib/lib.jar"));
+            zip.write(jar("Manifest-Version: 1.0\r\nDependencies: org.manifest export services, org.missing optional\r\n\r\n"));
+        }
+
+        List<String> unreachable = Arrays.asList("org.excluded:main", "org.unused.alias:main", "org.unused.dep:main",
+                "org.unused:main");
+        Path report = baseDir.resolve("report.txt");
+        Map<String, Path> pruned = new ModulePruner(wildflyDir, Collections.singletonList("org.kept"), new SystemStreamLog())
+                .prune(true, report);
+        Assert.assertEquals(unreachable, Arrays.asList(pruned.keySet().toArray()));
+        List<String> lines = Files.readAllLines(report);
+        Assert.assertEquals(5, lines.size());
+        Assert.assertTrue(lines.get(4), lines.get(4).startsWith("org.unused:main modules/system/layers/base/org/unused/main "));
+        for (Path dir : pruned.values()) {
+            Assert.assertTrue(Files.exists(dir));
+        }
+
+        pruned = new ModulePruner(wildflyDir, Collections.singletonList("org.kept"), new SystemStreamLog()).prune(false, report);
+        Assert.assertEquals(unreachable, Arrays.asList(pruned.keySet().toArray()));
+        Assert.assertFalse(Files.exists(layerDir.resolve("org").resolve("unused")));
+        Assert.assertFalse(Files.exists(layerDir.resolve("org").resolve("excluded")));
+        Assert.assertTrue(Files.exists(layerDir.resolve("org").resolve("server").resolve("alias").resolve("main")));
+        Assert.assertTrue(Files.exists(layerDir.resolve("org").resolve("foo").resolve("impl").resolve("main")));
+        Assert.assertTrue(Files.exists(layerDir.resolve("org").resolve("kept").resolve("main")));
+        Assert.assertTrue(Files.exists(layerDir.resolve("org").resolve("other").resolve("dep").resolve("main")));
+        Assert.assertTrue(new ModulePruner(wildflyDir, Collections.singletonList("org.kept"), new SystemStreamLog())
+                .prune(false, report).isEmpty());
+    }
+
+    @Test
+    public void testLoggingAndProductRoots() throws Exception {
+        module(layerDir, "org.foo.handler", PRIVATE, "org.foo.handler.dep");
+        module(layerDir, "org.foo.handler.dep", PRIVATE);
+        module(layerDir, "org.foo.formatter", PRIVATE);
+        module(layerDir, "org.unused", PRIVATE);
+        Path productDir = layerDir.resolve("org").resolve("jboss").resolve("as").resolve("product");
+        Files.createDirectories(productDir.resolve("wildfly"));
+        Files.write(productDir.resolve("wildfly").resolve("module.xml"), ("<module xmlns=\"urn:jboss:module:1.9\" "
+                + "name=\"org.jboss.as.product\" slot=\"wildfly\">" + PRIVATE + "</module>").getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(productDir.resolve("main"));
+        Files.write(productDir.resolve("main").resolve("module.xml"), ("<module xmlns=\"urn:jboss:module:1.9\" "
+                + "name=\"org.jboss.as.product\">" + PRIVATE + "</module>").getBytes(StandardCharsets.UTF_8));
+
+        Path config = wildflyDir.resolve("standalone").resolve("configuration");
+        Files.createDirectories(config);
+        Files.write(config.resolve("logging.properties"), ("loggers=\n"
+                + "handler.FILE=org.foo.FileHandler\n"
+                + "handler.FILE.module=org.foo.handler\n"
+                + "formatter.PATTERN=org.foo.Formatter\n"
+                + "formatter.PATTERN.module = org.foo.formatter\n").getBytes(StandardCharsets.UTF_8));
+        Path bin = wildflyDir.resolve("bin");
+        Files.createDirectories(bin);
+        Files.write(bin.resolve("product.conf"), "slot=wildfly\n".getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Path> pruned = new ModulePruner(wildflyDir, Collections.emptyList(), new SystemStreamLog())
+                .getUnreachableModules();
+        Assert.assertEquals(Arrays.asList("org.jboss.as.product:main", "org.unused:main"),
+                Arrays.asList(pruned.keySet().toArray()));
+    }
+
+    private static void module(Path layer, String name, String properties, String... dependencies) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        builder.append("<module xmlns=\"urn:jboss:module:1.9\" name=\"").append(name).append("\">").append(properties)
+                .append("<resources><resource-root path=\"foo.jar\"/></resources><dependencies>");
+        for (String dep : dependencies) {
+            builder.append("<module name=\"").append(dep).append("\"/>");
+        }
+        builder.append("<system export=\"true\"/></dependencies></module>");
+        write(layer, name, builder.toString());
+    }
+
+    private void alias(String name, String target) throws IOException {
+        write(layerDir, name, "<module-alias xmlns=\"urn:jboss:module:1.9\" name=\"" + name + "\" target-name=\"" + target + "\"/>");
+    }
+
+    private static void write(Path layer, String name, String moduleXml) throws IOException {
+        Path dir = layer.resolve(name.replace('.', '/')).resolve("main");
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("module.xml"), moduleXml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] jar(String manifest) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            OutputStream out = zip;
+            out.write(manifest.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArtifactPrefetchTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("artifact-prefetch-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testToArtifact() {
+        Artifact artifact = ArtifactPrefetch.toArtifact("org.foo:foo:1.0::jar");
+        Assert.assertEquals("org.foo:foo:jar:1.0", artifact.toString());
+        Assert.assertEquals("org.foo:foo:zip:fp:1.0", ArtifactPrefetch.toArtifact("org.foo:foo:1.0:fp:zip").toString());
+        Assert.assertNull(ArtifactPrefetch.toArtifact("org.foo:foo:unknown::jar"));
+        Assert.assertNull(ArtifactPrefetch.toArtifact("org.foo:foo"));
+        Assert.assertNull(ArtifactPrefetch.toArtifact(null));
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        Path localRepo = baseDir.resolve("repository");
+        Path local = localRepo.resolve("org/foo/local/1.0/local-1.0.jar");
+        Files.createDirectories(local.getParent());
+        Files.createFile(local);
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setLocalRepositoryManager(new SimpleLocalRepositoryManagerFactory()
+                .newInstance(session, new LocalRepository(localRepo.toFile())));
+        List<String> requested = new ArrayList<>();
+        List<Object> threads = new ArrayList<>();
+        RepositorySystem system = (RepositorySystem) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RepositorySystem.class}, (proxy, method, args) -> {
+                    if (!"resolveArtifacts".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    threads.add(((DefaultRepositorySystemSession) args[0]).getConfigProperties()
+                            .get(ArtifactPrefetch.CONNECTOR_THREADS));
+                    @SuppressWarnings("unchecked")
+                    List<ArtifactRequest> requests = (List<ArtifactRequest>) args[1];
+                    List<ArtifactResult> results = new ArrayList<>();
+                    for (ArtifactRequest request : requests) {
+                        requested.add(request.getArtifact().toString());
+                        ArtifactResult result = new ArtifactResult(request);
+                        if (request.getArtifact().getArtifactId().equals("remote")) {
+                            result.setArtifact(request.getArtifact().setFile(local.toFile()));
+                        }
+                        results.add(result);
+                    }
+                    throw new ArtifactResolutionException(results);
+                });
+        ArtifactPrefetch.Summary summary = new ArtifactPrefetch(system, session, Collections.emptyList(), 4)
+                .prefetch(Arrays.asList("org.foo:local:1.0::jar", "org.foo:remote:1.0::jar", "org.foo:missing:1.0::jar",
+                        "org.foo:remote:1.0::jar", "org.foo:optional:unknown::jar"));
+        Assert.assertEquals(1, summary.getLocal());
+        Assert.assertEquals(1, summary.getRemote());
+        Assert.assertEquals(1, summary.getFailed());
+        Assert.assertEquals(Arrays.asList("org.foo:remote:jar:1.0", "org.foo:missing:jar:1.0"), requested);
+        Assert.assertEquals(Collections.singletonList(4), threads);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BootableJarAssemblerTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("bootable-jar-assembler-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testAssemble() throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "org.wildfly.Main");
+        Map<String, String> runtime = new HashMap<>();
+        runtime.put("org/wildfly/Main.class", "runtime");
+        runtime.put("META-INF/services/foo", "runtime");
+        Path rtJar = createJar("runtime.jar", manifest, runtime);
+        Map<String, String> modules = new HashMap<>();
+        modules.put("org/jboss/modules/Main.class", "modules");
+        modules.put("META-INF/services/foo", "modules");
+        Path modulesJar = createJar("jboss-modules.jar", new Manifest(), modules);
+
+        Path contentDir = baseDir.resolve("jar-content");
+        Files.createDirectories(contentDir.resolve("org").resolve("jboss").resolve("modules"));
+        Files.write(contentDir.resolve("provisioning.xml"), "<installation/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(contentDir.resolve("org").resolve("jboss").resolve("modules").resolve("Main.class"),
+                "extra".getBytes(StandardCharsets.UTF_8));
+
+        Path wildflyDir = baseDir.resolve("wildfly");
+        Path configDir = wildflyDir.resolve("standalone").resolve("configuration");
+        Files.createDirectories(configDir.resolve("standalone_xml_history"));
+        Files.write(configDir.resolve("standalone.xml"), "<server/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(wildflyDir.resolve("README.txt"), "readme".getBytes(StandardCharsets.UTF_8));
+
+        Path jarFile = baseDir.resolve("bootable.jar");
+        Manifest rtManifest = BootableJarAssembler.readManifest(rtJar);
+        rtManifest.getMainAttributes().putValue("Cloud", "true");
+        try (BootableJarAssembler assembler = new BootableJarAssembler(jarFile)) {
+            assembler.addManifest(rtManifest);
+            assembler.addArchive(rtJar);
+            assembler.addArchive(modulesJar);
+            assembler.addDirectory(contentDir);
+            assembler.addServer(wildflyDir);
+        }
+
+        try (JarFile jar = new JarFile(jarFile.toFile())) {
+            Assert.assertEquals("org.wildfly.Main", jar.getManifest().getMainAttributes().getValue(Attributes.Name.MAIN_CLASS));
+            Assert.assertEquals("true", jar.getManifest().getMainAttributes().getValue("Cloud"));
+            Assert.assertEquals("runtime", read(jar, "org/wildfly/Main.class"));
+            Assert.assertEquals("runtime", read(jar, "META-INF/services/foo"));
+            Assert.assertEquals("modules", read(jar, "org/jboss/modules/Main.class"));
+            Assert.assertEquals("<installation/>", read(jar, "provisioning.xml"));
+            Map<String, String> server = new HashMap<>();
+            try (ZipInputStream zip = new ZipInputStream(jar.getInputStream(jar.getEntry(BootableJarAssembler.SERVER_ZIP)))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    server.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            Assert.assertEquals("<server/>", server.get("standalone/configuration/standalone.xml"));
+            Assert.assertTrue(server.containsKey("standalone/configuration/"));
+            Assert.assertFalse(server.containsKey("README.txt"));
+            Assert.assertFalse(server.containsKey("standalone/configuration/standalone_xml_history/"));
+        }
+        Assert.assertTrue(BootableJarAssembler.hasEntry(jarFile, "org/jboss/modules/Main.class"));
+        Assert.assertFalse(BootableJarAssembler.hasEntry(jarFile, "org/jboss/modules/Foo.class"));
+    }
+
+    @Test
+    public void testReproducible() throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "org.wildfly.Main");
+        Path rtJar = createJar("runtime.jar", manifest, Collections.singletonMap("org/wildfly/Main.class", "runtime"));
+        Path wildflyDir = baseDir.resolve("wildfly");
+        Path configDir = wildflyDir.resolve("standalone").resolve("configuration");
+        Files.createDirectories(configDir);
+        Files.write(configDir.resolve("standalone.xml"), "<server/>".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(wildflyDir.resolve("modules"));
+        Files.write(wildflyDir.resolve("modules").resolve("module.xml"), "<module/>".getBytes(StandardCharsets.UTF_8));
+
+        long timestamp = BootableJarAssembler.parseOutputTimestamp("2024-01-01T10:00:00Z");
+        Path first = assemble("first.jar", rtJar, wildflyDir, "b", timestamp);
+        for (Path p : Arrays.asList(configDir.resolve("standalone.xml"), wildflyDir.resolve("modules"))) {
+            Files.setLastModifiedTime(p, FileTime.fromMillis(System.currentTimeMillis() - 3600_000));
+        }
+        Path second = assemble("second.jar", rtJar, wildflyDir, "a", timestamp);
+        Assert.assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+
+        try (JarFile jar = new JarFile(first.toFile())) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                // MS-DOS time in UTC, whatever the default time zone.
+                Assert.assertEquals(entry.getName(), LocalDateTime.of(2024, 1, 1, 10, 0), entry.getTimeLocal());
+            }
+            Manifest sorted = jar.getManifest();
+            Assert.assertEquals(Arrays.asList("Manifest-Version", "A", "B", "Main-Class"),
+                    sorted.getMainAttributes().keySet().stream().map(Object::toString).collect(Collectors.toList()));
+            List<String> server = new ArrayList<>();
+            try (ZipInputStream zip = new ZipInputStream(jar.getInputStream(jar.getEntry(BootableJarAssembler.SERVER_ZIP)))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    server.add(entry.getName());
+                }
+            }
+            Assert.assertEquals(Arrays.asList("modules/", "modules/module.xml", "standalone/", "standalone/configuration/",
+                    "standalone/configuration/standalone.xml"), server);
+        }
+    }
+
+    @Test
+    public void testParseOutputTimestamp() {
+        Assert.assertEquals(-1, BootableJarAssembler.parseOutputTimestamp(null));
+        Assert.assertEquals(-1, BootableJarAssembler.parseOutputTimestamp("a"));
+        Assert.assertEquals(1_700_000_000_000L, BootableJarAssembler.parseOutputTimestamp("1700000000"));
+        Assert.assertEquals(Instant.parse("2019-10-05T18:37:42Z").toEpochMilli(),
+                BootableJarAssembler.parseOutputTimestamp("2019-10-05T20:37:42+02:00"));
+        for (String invalid : Arrays.asList("2019-10-05", "1970-01-01T00:00:00Z", "10")) {
+            try {
+                BootableJarAssembler.parseOutputTimestamp(invalid);
+                Assert.fail(invalid);
+            } catch (IllegalArgumentException ex) {
+                // Expected.
+            }
+        }
+    }
+
+    // The manifest attributes are added in another order for each JAR.
+    private Path assemble(String name, Path rtJar, Path wildflyDir, String firstAttribute, long timestamp) throws IOException {
+        Path jarFile = baseDir.resolve(name);
+        try (BootableJarAssembler assembler = new BootableJarAssembler(jarFile, 2, CompressionPolicy.DEFLATE,
+                Deflater.DEFAULT_COMPRESSION, timestamp)) {
+            Manifest manifest = BootableJarAssembler.readManifest(rtJar);
+            manifest.getMainAttributes().putValue(firstAttribute.toUpperCase(Locale.ENGLISH), "1");
+            manifest.getMainAttributes().putValue("a".equals(firstAttribute) ? "B" : "A", "1");
+            assembler.addManifest(manifest);
+            assembler.addArchive(rtJar);
+            assembler.addServer(wildflyDir);
+        }
+        return jarFile;
+    }
+
+    private Path createJar(String name, Manifest manifest, Map<String, String> content) throws IOException {
+        Path jar = baseDir.resolve(name);
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            for (Map.Entry<String, String> entry : content.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static String read(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        Assert.assertNotNull(name, entry);
+        try (InputStream in = zip.getInputStream(entry)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
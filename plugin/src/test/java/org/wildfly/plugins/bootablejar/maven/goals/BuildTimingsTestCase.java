@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BuildTimingsTestCase {
+
+    @Test
+    public void testReport() throws Exception {
+        Path dir = Files.createTempDirectory("build-timings-");
+        try {
+            Files.write(dir.resolve("a.txt"), new byte[10]);
+            Files.createDirectories(dir.resolve("sub"));
+            Files.write(dir.resolve("sub").resolve("b.txt"), new byte[5]);
+            Assert.assertEquals(15, BuildTimings.size(dir));
+
+            BuildTimings timings = new BuildTimings();
+            try (BuildTimings.Phase provisioning = timings.start("provisioning")) {
+                try (BuildTimings.Phase scan = timings.start("scan \"modules\"")) {
+                    timings.accumulate("artifact-resolution", System.nanoTime());
+                    timings.accumulate("artifact-resolution", System.nanoTime());
+                }
+                provisioning.setBytesWritten(15);
+            }
+            timings.start("bootable-jar").setBytesWritten(100);
+            Path file = dir.resolve(BuildTimings.FILE_NAME);
+            timings.write(file, "1.0");
+            String report = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Assert.assertTrue(report, report.contains("\"plugin-version\": \"1.0\""));
+            Assert.assertTrue(report, report.contains("\"bytes-written\": 115,"));
+            Assert.assertTrue(report, report.contains("{\"name\": \"provisioning\", \"start-millis\": "));
+            Assert.assertTrue(report, report.contains("{\"name\": \"scan \\\"modules\\\"\", \"parent\": \"provisioning\""));
+            Assert.assertTrue(report, report.contains("{\"name\": \"bootable-jar\", \"start-millis\": "));
+            Assert.assertTrue(report, report.contains("\"completed\": false, \"bytes-written\": 100}"));
+            Assert.assertTrue(report, report.contains("{\"name\": \"artifact-resolution\", \"count\": 2, \"wall-millis\": "));
+            Assert.assertTrue(report, report.contains("\"peak-heap-bytes\": "));
+        } finally {
+            IoUtils.recursiveDelete(dir);
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        Path dir = Files.createTempDirectory("build-timings-");
+        try {
+            BuildTimings timings = BuildTimings.disabled();
+            try (BuildTimings.Phase phase = timings.start("provisioning")) {
+                timings.accumulate("artifact-resolution", System.nanoTime());
+                phase.setBytesWritten(15);
+            }
+            Path file = dir.resolve(BuildTimings.FILE_NAME);
+            timings.write(file, "1.0");
+            String report = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Assert.assertFalse(report, report.contains("provisioning"));
+            Assert.assertFalse(report, report.contains("artifact-resolution"));
+            Assert.assertTrue(report, report.contains("\"bytes-written\": 0,"));
+            Assert.assertTrue(report, report.contains("\"cpu-millis\": \"n/a\","));
+        } finally {
+            IoUtils.recursiveDelete(dir);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ChannelMetadataCoordinate;
+import org.wildfly.channel.Repository;
+import org.wildfly.channel.spi.MavenVersionsResolver;
+
+public class ChannelCacheTestCase {
+
+    private static final List<Repository> REPOSITORIES = Arrays.asList(new Repository("central", "https://repo.maven.apache.org/maven2"));
+
+    private static final class CountingFactory implements MavenVersionsResolver.Factory {
+
+        private final Path manifest;
+        private int calls;
+
+        private CountingFactory(Path manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public MavenVersionsResolver create(Collection<Repository> repositories) {
+            return new MavenVersionsResolver() {
+                @Override
+                public Set<String> getAllVersions(String groupId, String artifactId, String extension, String classifier) {
+                    calls += 1;
+                    return "missing".equals(artifactId) ? Collections.emptySet() : new LinkedHashSet<>(Arrays.asList("1.0", "1.1"));
+                }
+
+                @Override
+                public File resolveArtifact(String groupId, String artifactId, String extension, String classifier, String version) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public List<File> resolveArtifacts(List<ArtifactCoordinate> coordinates) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public List<URL> resolveChannelMetadata(List<? extends ChannelMetadataCoordinate> coordinates) {
+                    List<URL> urls = new ArrayList<>();
+                    for (int i = 0; i < coordinates.size(); i++) {
+                        calls += 1;
+                        try {
+                            urls.add(manifest.toUri().toURL());
+                        } catch (IOException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                    return urls;
+                }
+
+                @Override
+                public String getMetadataReleaseVersion(String groupId, String artifactId) {
+                    calls += 1;
+                    return "2.0";
+                }
+
+                @Override
+                public String getMetadataLatestVersion(String groupId, String artifactId) {
+                    calls += 1;
+                    return "2.1";
+                }
+            };
+        }
+    }
+
+    private Path baseDir;
+    private Path manifest;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("channel-cache-");
+        manifest = baseDir.resolve("manifest.yaml");
+        Files.write(manifest, "schemaVersion: 1.0.0".getBytes());
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        Path file = baseDir.resolve("cache/channel-cache.properties");
+        CountingFactory factory = new CountingFactory(manifest);
+        ChannelCache cache = new ChannelCache(factory, file, 60000, false, new SystemStreamLog());
+        MavenVersionsResolver resolver = cache.create(REPOSITORIES);
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("1.0", "1.1")), resolver.getAllVersions("org.foo", "foo", "jar", null));
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("1.0", "1.1")), resolver.getAllVersions("org.foo", "foo", "jar", null));
+        Assert.assertEquals("2.1", resolver.getMetadataLatestVersion("org.foo", "manifest"));
+        Assert.assertEquals("2.1", resolver.getMetadataLatestVersion("org.foo", "manifest"));
+        ChannelMetadataCoordinate coordinate = new ChannelMetadataCoordinate("org.foo", "manifest", "2.1", "manifest", "yaml");
+        Assert.assertEquals(manifest.toUri().toURL(), resolver.resolveChannelMetadata(Collections.singletonList(coordinate)).get(0));
+        Assert.assertEquals(manifest.toUri().toURL(), resolver.resolveChannelMetadata(Collections.singletonList(coordinate)).get(0));
+        Assert.assertEquals(3, factory.calls);
+        Assert.assertEquals(3, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+
+        // Nothing found is not cached.
+        Assert.assertTrue(resolver.getAllVersions("org.foo", "missing", "jar", null).isEmpty());
+        Assert.assertTrue(resolver.getAllVersions("org.foo", "missing", "jar", null).isEmpty());
+        Assert.assertEquals(5, factory.calls);
+
+        // Other repositories, other entries.
+        cache.create(Arrays.asList(new Repository("other", "https://example.org/maven2"))).getAllVersions("org.foo", "foo", "jar", null);
+        Assert.assertEquals(6, factory.calls);
+
+        cache.store();
+        Assert.assertTrue(Files.exists(file));
+
+        CountingFactory reloaded = new CountingFactory(manifest);
+        cache = new ChannelCache(reloaded, file, 60000, false, new SystemStreamLog());
+        resolver = cache.create(REPOSITORIES);
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("1.0", "1.1")), resolver.getAllVersions("org.foo", "foo", "jar", null));
+        Assert.assertEquals("2.1", resolver.getMetadataLatestVersion("org.foo", "manifest"));
+        Assert.assertEquals(manifest.toUri().toURL(), resolver.resolveChannelMetadata(Collections.singletonList(coordinate)).get(0));
+        Assert.assertEquals(0, reloaded.calls);
+
+        // The manifest has been removed from the local repository.
+        Files.delete(manifest);
+        resolver.resolveChannelMetadata(Collections.singletonList(coordinate));
+        Assert.assertEquals(1, reloaded.calls);
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        Path file = baseDir.resolve("channel-cache.properties");
+        ChannelCache cache = new ChannelCache(new CountingFactory(manifest), file, 60000, false, new SystemStreamLog());
+        cache.create(REPOSITORIES).getMetadataReleaseVersion("org.foo", "manifest");
+        cache.store();
+
+        CountingFactory factory = new CountingFactory(manifest);
+        cache = new ChannelCache(factory, file, -1, false, new SystemStreamLog());
+        Assert.assertEquals("2.0", cache.create(REPOSITORIES).getMetadataReleaseVersion("org.foo", "manifest"));
+        Assert.assertEquals(1, factory.calls);
+
+        // Expired entries are used when offline.
+        factory = new CountingFactory(manifest);
+        cache = new ChannelCache(factory, file, -1, true, new SystemStreamLog());
+        Assert.assertEquals("2.0", cache.create(REPOSITORIES).getMetadataReleaseVersion("org.foo", "manifest"));
+        Assert.assertEquals(0, factory.calls);
+        Assert.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testRequireChannel() throws Exception {
+        Path file = baseDir.resolve("channel-cache.properties");
+        ChannelCache cache = new ChannelCache(new CountingFactory(manifest), file, 60000, false, new SystemStreamLog());
+        Assert.assertNull(cache.getRequireChannel("org.foo:fp:zip::1.0"));
+        cache.putRequireChannel("org.foo:fp:zip::1.0", true);
+        cache.putRequireChannel("org.foo:other:zip::1.0", false);
+        cache.store();
+
+        // Feature-pack entries don't expire.
+        cache = new ChannelCache(new CountingFactory(manifest), file, -1, false, new SystemStreamLog());
+        Assert.assertEquals(Boolean.TRUE, cache.getRequireChannel("org.foo:fp:zip::1.0"));
+        Assert.assertEquals(Boolean.FALSE, cache.getRequireChannel("org.foo:other:zip::1.0"));
+        cache.putRequireChannel("org.foo:new:zip::1.0", false);
+        cache.store();
+        cache = new ChannelCache(new CountingFactory(manifest), file, -1, false, new SystemStreamLog());
+        Assert.assertEquals(Boolean.TRUE, cache.getRequireChannel("org.foo:fp:zip::1.0"));
+    }
+}
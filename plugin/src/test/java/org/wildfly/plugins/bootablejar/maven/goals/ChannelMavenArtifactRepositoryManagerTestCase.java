@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ChannelSession;
+import org.wildfly.channel.NoStreamFoundException;
+
+public class ChannelMavenArtifactRepositoryManagerTestCase {
+
+    /**
+     * Resolves the artifacts to the requested version with a channel suffix,
+     * the artifacts of the missing set have no stream.
+     */
+    private static final class TestChannelSession extends ChannelSession {
+
+        private final Set<String> missing;
+        private final List<List<ArtifactCoordinate>> batches = new ArrayList<>();
+        private final List<String> resolved = new ArrayList<>();
+        private final List<String> direct = new ArrayList<>();
+
+        private TestChannelSession(String... missing) {
+            super(Collections.emptyList(), repositories -> null);
+            this.missing = new HashSet<>(Arrays.asList(missing));
+        }
+
+        private static org.wildfly.channel.MavenArtifact toResult(String groupId, String artifactId, String extension,
+                String classifier, String version) {
+            return new org.wildfly.channel.MavenArtifact(groupId, artifactId, extension, classifier, version,
+                    new File(artifactId + "-" + version + "." + extension));
+        }
+
+        @Override
+        public List<org.wildfly.channel.MavenArtifact> resolveMavenArtifacts(List<ArtifactCoordinate> coordinates) {
+            batches.add(new ArrayList<>(coordinates));
+            Set<ArtifactCoordinate> unresolved = new HashSet<>();
+            List<org.wildfly.channel.MavenArtifact> results = new ArrayList<>();
+            for (ArtifactCoordinate c : coordinates) {
+                if (missing.contains(c.getArtifactId())) {
+                    unresolved.add(c);
+                } else {
+                    results.add(toResult(c.getGroupId(), c.getArtifactId(), c.getExtension(), c.getClassifier(),
+                            c.getVersion() + ".channel"));
+                }
+            }
+            if (!unresolved.isEmpty()) {
+                throw new NoStreamFoundException("No stream", unresolved, Collections.emptySet());
+            }
+            // The results are not in the order of the coordinates.
+            Collections.reverse(results);
+            return results;
+        }
+
+        @Override
+        public org.wildfly.channel.MavenArtifact resolveMavenArtifact(String groupId, String artifactId, String extension,
+                String classifier, String version) {
+            resolved.add(artifactId + ":" + version);
+            if (missing.contains(artifactId)) {
+                throw new NoStreamFoundException("No stream",
+                        Collections.singleton(new ArtifactCoordinate(groupId, artifactId, extension, classifier, version)),
+                        Collections.emptySet());
+            }
+            return toResult(groupId, artifactId, extension, classifier, version + ".channel");
+        }
+
+        @Override
+        public org.wildfly.channel.MavenArtifact resolveDirectMavenArtifact(String groupId, String artifactId,
+                String extension, String classifier, String version) {
+            direct.add(artifactId + ":" + version);
+            return toResult(groupId, artifactId, extension, classifier, version);
+        }
+    }
+
+    private static MavenArtifact resolve(ChannelMavenArtifactRepositoryManager manager, String artifactId, String version)
+            throws Exception {
+        MavenArtifact artifact = new MavenArtifact().setGroupId("org.foo").setArtifactId(artifactId)
+                .setExtension("jar").setVersion(version);
+        manager.resolve(artifact);
+        return artifact;
+    }
+
+    @Test
+    public void testPrefetchVersions() throws Exception {
+        TestChannelSession channelSession = new TestChannelSession();
+        ChannelMavenArtifactRepositoryManager manager = new ChannelMavenArtifactRepositoryManager(channelSession,
+                new SystemStreamLog());
+        int count = manager.prefetch(Arrays.asList("org.foo:a:1.0::jar", "org.foo:b:1.0::jar", "org.foo:a:2.0::jar"), 2);
+        Assert.assertEquals(3, count);
+        // The two versions of a are resolved in distinct batches.
+        Assert.assertEquals(2, channelSession.batches.size());
+        Assert.assertEquals(2, channelSession.batches.get(0).size());
+        Assert.assertEquals(Arrays.asList(new ArtifactCoordinate("org.foo", "a", "jar", null, "2.0")),
+                channelSession.batches.get(1));
+
+        Assert.assertEquals("1.0.channel", resolve(manager, "a", "1.0").getVersion());
+        Assert.assertEquals("2.0.channel", resolve(manager, "a", "2.0").getVersion());
+        Assert.assertEquals("1.0.channel", resolve(manager, "b", "1.0").getVersion());
+        Assert.assertTrue(channelSession.resolved.toString(), channelSession.resolved.isEmpty());
+    }
+
+    @Test
+    public void testPrefetchRetryAndFallback() throws Exception {
+        TestChannelSession channelSession = new TestChannelSession("missing");
+        ChannelMavenArtifactRepositoryManager manager = new ChannelMavenArtifactRepositoryManager(channelSession,
+                new SystemStreamLog());
+        int count = manager.prefetch(Arrays.asList("org.foo:a:1.0::jar", "org.foo:missing:1.0::jar"), 2);
+        Assert.assertEquals(1, count);
+        // The artifact without stream is removed from the batch and the batch is retried.
+        Assert.assertEquals(2, channelSession.batches.size());
+        Assert.assertEquals(2, channelSession.batches.get(0).size());
+        Assert.assertEquals(Arrays.asList(new ArtifactCoordinate("org.foo", "a", "jar", null, "1.0")),
+                channelSession.batches.get(1));
+
+        Assert.assertEquals("1.0.channel", resolve(manager, "a", "1.0").getVersion());
+        // Not prefetched, resolved through the channels then with its original version.
+        MavenArtifact missing = resolve(manager, "missing", "1.0");
+        Assert.assertEquals("1.0", missing.getVersion());
+        Assert.assertEquals(new File("missing-1.0.jar").toPath(), missing.getPath());
+        Assert.assertEquals(Arrays.asList("missing:1.0"), channelSession.resolved);
+        Assert.assertEquals(Arrays.asList("missing:1.0"), channelSession.direct);
+        Assert.assertTrue(manager.isOriginalVersion(ChannelMavenArtifactRepositoryManager.toKey("org.foo", "missing",
+                "jar", null, "1.0")));
+    }
+
+    @Test
+    public void testPrefetchFailure() throws Exception {
+        TestChannelSession channelSession = new TestChannelSession("a", "b");
+        ChannelMavenArtifactRepositoryManager manager = new ChannelMavenArtifactRepositoryManager(channelSession,
+                new SystemStreamLog());
+        // Nothing can be prefetched, the artifacts are left to the provisioning.
+        Assert.assertEquals(0, manager.prefetch(Arrays.asList("org.foo:a:1.0::jar", "org.foo:b:1.0::jar"), 2));
+        Assert.assertEquals(1, channelSession.batches.size());
+        Assert.assertEquals("1.0", resolve(manager, "a", "1.0").getVersion());
+        Assert.assertEquals(Arrays.asList("a:1.0"), channelSession.resolved);
+    }
+}
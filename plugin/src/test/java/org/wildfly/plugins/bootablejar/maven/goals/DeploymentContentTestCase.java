@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeploymentContentTestCase {
+
+    private Path baseDir;
+    private Path wildflyDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("deployment-content-");
+        wildflyDir = baseDir.resolve("wildfly");
+        Files.createDirectories(DeploymentContent.getStandaloneXml(wildflyDir).getParent());
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testReplace() throws Exception {
+        Path v1 = write("app-v1.war", "version 1");
+        Path v2 = write("app-v2.war", "version 2");
+        String hash1 = DeploymentContent.add(wildflyDir, v1);
+        Assert.assertEquals(hash1, DeploymentContent.hash(v1));
+        Assert.assertEquals(40, hash1.length());
+        Path content1 = DeploymentContent.getContentDir(wildflyDir, hash1).resolve("content");
+        Assert.assertEquals(wildflyDir.resolve("standalone/data/content/" + hash1.substring(0, 2) + "/"
+                + hash1.substring(2) + "/content"), content1);
+        Assert.assertTrue(Files.exists(content1));
+
+        Files.write(DeploymentContent.getStandaloneXml(wildflyDir), ("<server><deployments><deployment name=\"app.war\" "
+                + "runtime-name=\"ROOT.war\"><content sha1=\"" + hash1 + "\"/></deployment></deployments></server>")
+                .getBytes(StandardCharsets.UTF_8));
+
+        // Unknown deployment is not replaced.
+        Assert.assertNull(DeploymentContent.replace(wildflyDir, "other.war", hash1, v2));
+
+        String hash2 = DeploymentContent.replace(wildflyDir, "app.war", hash1, v2);
+        Assert.assertNotNull(hash2);
+        Assert.assertNotEquals(hash1, hash2);
+        Assert.assertFalse(DeploymentContent.exists(wildflyDir, hash1));
+        Assert.assertFalse(Files.exists(DeploymentContent.getContentDir(wildflyDir, hash1)));
+        Assert.assertEquals("version 2", new String(Files.readAllBytes(DeploymentContent.getContentDir(wildflyDir, hash2)
+                .resolve("content")), StandardCharsets.UTF_8));
+        String config = new String(Files.readAllBytes(DeploymentContent.getStandaloneXml(wildflyDir)), StandardCharsets.UTF_8);
+        Assert.assertTrue(config.contains("sha1=\"" + hash2 + "\""));
+        Assert.assertFalse(config.contains(hash1));
+
+        // Unknown content is not replaced.
+        Assert.assertNull(DeploymentContent.replace(wildflyDir, "app.war", hash1, v1));
+    }
+
+    @Test
+    public void testReplaceOnlyNamedDeployment() throws Exception {
+        Path v1 = write("app-v1.war", "version 1");
+        Path v2 = write("app-v2.war", "version 2");
+        String hash1 = DeploymentContent.add(wildflyDir, v1);
+        Path standaloneXml = DeploymentContent.getStandaloneXml(wildflyDir);
+        Files.write(standaloneXml, ("<server>\n"
+                + "    <!-- sha1=\"" + hash1 + "\" -->\n"
+                + "    <deployments>\n"
+                + "        <deployment name=\"copy.war\" runtime-name=\"copy.war\">\n"
+                + "            <content sha1=\"" + hash1 + "\"/>\n"
+                + "        </deployment>\n"
+                + "        <deployment name=\"app.war\" runtime-name=\"app.war\">\n"
+                + "            <content sha1=\"" + hash1 + "\"/>\n"
+                + "        </deployment>\n"
+                + "    </deployments>\n"
+                + "</server>\n").getBytes(StandardCharsets.UTF_8));
+        String hash2 = DeploymentContent.replace(wildflyDir, "app.war", hash1, v2);
+        Assert.assertEquals("<server>\n"
+                + "    <!-- sha1=\"" + hash1 + "\" -->\n"
+                + "    <deployments>\n"
+                + "        <deployment name=\"copy.war\" runtime-name=\"copy.war\">\n"
+                + "            <content sha1=\"" + hash1 + "\"/>\n"
+                + "        </deployment>\n"
+                + "        <deployment name=\"app.war\" runtime-name=\"app.war\">\n"
+                + "            <content sha1=\"" + hash2 + "\"/>\n"
+                + "        </deployment>\n"
+                + "    </deployments>\n"
+                + "</server>\n", new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8));
+        // Still referenced by the other deployment.
+        Assert.assertTrue(DeploymentContent.exists(wildflyDir, hash1));
+    }
+
+    @Test
+    public void testDeploy() throws Exception {
+        Path app = write("app.war", "app");
+        Path standaloneXml = DeploymentContent.getStandaloneXml(wildflyDir);
+        Files.write(standaloneXml, ("<server xmlns=\"urn:jboss:domain:20.0\">\n"
+                + "    <socket-binding-group name=\"standard-sockets\"/>\n"
+                + "    <socket-binding-group name=\"other\">\n"
+                + "    </socket-binding-group>\n"
+                + "</server>\n").getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(DeploymentContent.deploy(wildflyDir, app, "app.war", "ROOT.war"));
+        String hash = DeploymentContent.hash(app);
+        Assert.assertTrue(DeploymentContent.exists(wildflyDir, hash));
+        Assert.assertEquals("<server xmlns=\"urn:jboss:domain:20.0\">\n"
+                + "    <socket-binding-group name=\"standard-sockets\"/>\n"
+                + "    <socket-binding-group name=\"other\">\n"
+                + "    </socket-binding-group>\n"
+                + "    <deployments>\n"
+                + "        <deployment name=\"app.war\" runtime-name=\"ROOT.war\">\n"
+                + "            <content sha1=\"" + hash + "\"/>\n"
+                + "        </deployment>\n"
+                + "    </deployments>\n"
+                + "</server>\n", new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8));
+
+        // Same name can't be deployed twice.
+        Assert.assertFalse(DeploymentContent.deploy(wildflyDir, app, "app.war", "other.war"));
+
+        Path other = write("other.jar", "other");
+        Assert.assertTrue(DeploymentContent.deploy(wildflyDir, other, "other.jar", "other.jar"));
+        String config = new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8);
+        Assert.assertTrue(config.contains("            <content sha1=\"" + hash + "\"/>\n"
+                + "        </deployment>\n"
+                + "        <deployment name=\"other.jar\" runtime-name=\"other.jar\">\n"
+                + "            <content sha1=\"" + DeploymentContent.hash(other) + "\"/>\n"
+                + "        </deployment>\n"
+                + "    </deployments>\n"));
+    }
+
+    @Test
+    public void testDeployBeforeOverlays() throws Exception {
+        Path app = write("app.war", "app");
+        Path standaloneXml = DeploymentContent.getStandaloneXml(wildflyDir);
+        Files.write(standaloneXml, ("<server>\n    <deployments/>\n    <deployment-overlays/>\n</server>\n")
+                .getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(DeploymentContent.deploy(wildflyDir, app, "app.war", "app.war"));
+        Assert.assertEquals("<server>\n"
+                + "    <deployments>\n"
+                + "        <deployment name=\"app.war\" runtime-name=\"app.war\">\n"
+                + "            <content sha1=\"" + DeploymentContent.hash(app) + "\"/>\n"
+                + "        </deployment>\n"
+                + "    </deployments>\n"
+                + "    <deployment-overlays/>\n"
+                + "</server>\n", new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDeployKeepsConfiguration() throws Exception {
+        Path app = write("app.war", "app");
+        Path standaloneXml = DeploymentContent.getStandaloneXml(wildflyDir);
+        String server = "<server xmlns=\"urn:jboss:domain:20.0\">\n"
+                + "    <!-- </deployments> in a comment -->\n"
+                + "    <system-properties>\n"
+                + "        <property name=\"p\" value=\"&lt;/server&gt;\"/>\n"
+                + "    </system-properties>\n"
+                + "    <socket-binding-group default-interface=\"public\" name=\"standard-sockets\">\n"
+                + "        <socket-binding name=\"http\" port=\"${jboss.http.port:8080}\"/>\n"
+                + "    </socket-binding-group>\n";
+        Files.write(standaloneXml, ("<?xml version='1.0' encoding='UTF-8'?>\n\n" + server + "</server>\n")
+                .getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(DeploymentContent.deploy(wildflyDir, app, "a&b.war", "ROOT.war"));
+        Assert.assertEquals("<?xml version='1.0' encoding='UTF-8'?>\n\n" + server
+                + "    <deployments>\n"
+                + "        <deployment name=\"a&amp;b.war\" runtime-name=\"ROOT.war\">\n"
+                + "            <content sha1=\"" + DeploymentContent.hash(app) + "\"/>\n"
+                + "        </deployment>\n"
+                + "    </deployments>\n"
+                + "</server>\n", new String(Files.readAllBytes(standaloneXml), StandardCharsets.UTF_8));
+        Assert.assertFalse(DeploymentContent.deploy(wildflyDir, app, "a&b.war", "ROOT.war"));
+    }
+
+    @Test
+    public void testFingerprint() throws Exception {
+        Path dir = baseDir.resolve("extra");
+        Files.createDirectories(dir.resolve("sub"));
+        Path file = write("extra/sub/file.txt", "a");
+        String fingerprint = FastRebuildState.computeFingerprint(Arrays.asList("1.0", "app.war"),
+                Collections.singletonList(dir));
+        Assert.assertEquals(fingerprint, FastRebuildState.computeFingerprint(Arrays.asList("1.0", "app.war"),
+                Collections.singletonList(dir)));
+        Files.write(file, "b".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNotEquals(fingerprint, FastRebuildState.computeFingerprint(Arrays.asList("1.0", "app.war"),
+                Collections.singletonList(dir)));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = baseDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DuplicateFilesTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("duplicate-files-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        Path wildflyDir = baseDir.resolve("wildfly");
+        write(wildflyDir.resolve("modules/org/foo/main/foo.jar"), "jar content");
+        write(wildflyDir.resolve("modules/org/bar/main/foo.jar"), "jar content");
+        write(wildflyDir.resolve("modules/org/baz/main/foo.jar"), "jar content");
+        write(wildflyDir.resolve("modules/org/foo/main/LICENSE"), "license");
+        write(wildflyDir.resolve("docs/LICENSE"), "license");
+        // Same size, other content.
+        write(wildflyDir.resolve("docs/README"), "readme!");
+        write(wildflyDir.resolve("docs/empty"), "");
+        write(wildflyDir.resolve("docs/empty2"), "");
+
+        List<DuplicateFiles.Group> groups = DuplicateFiles.find(wildflyDir);
+        Assert.assertEquals(2, groups.size());
+        Assert.assertEquals(Arrays.asList("modules/org/bar/main/foo.jar", "modules/org/baz/main/foo.jar",
+                "modules/org/foo/main/foo.jar"), groups.get(0).getFiles());
+        Assert.assertEquals(22, groups.get(0).getWasted());
+        Assert.assertEquals(DeploymentContent.hash(wildflyDir.resolve("modules/org/foo/main/foo.jar")), groups.get(0).getHash());
+        Assert.assertEquals(Arrays.asList("docs/LICENSE", "modules/org/foo/main/LICENSE"), groups.get(1).getFiles());
+
+        Path report = baseDir.resolve("report.txt");
+        Assert.assertEquals(29, DuplicateFiles.writeReport(groups, report));
+        List<String> lines = Files.readAllLines(report);
+        Assert.assertEquals(7, lines.size());
+        Assert.assertEquals(groups.get(0).getHash() + " size=11 copies=3 wasted=22", lines.get(0));
+        Assert.assertEquals("  modules/org/bar/main/foo.jar", lines.get(1));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -18,10 +18,23 @@
  */
 package org.wildfly.plugins.bootablejar.maven.goals;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.api.GalleonFeaturePackDescription;
+import org.jboss.galleon.api.config.GalleonProvisioningConfig;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -168,4 +181,119 @@ public class MavenUgradeTestCase {
         Assert.assertEquals(expected, option);
 
     }
+
+    private static final String RESOLUTION_THREAD = "bootable-jar-feature-pack-resolution-";
+
+    private static FPID fpid(String coords) {
+        return FeaturePackLocation.fromString(coords).getFPID();
+    }
+
+    /**
+     * fp1 depends on dep1, fp2 depends on dep2 and on dep1 as a transitive
+     * dependency. The producers differ from the Maven coordinates.
+     */
+    private static Map<String, GalleonFeaturePackDescription> descriptions() {
+        Map<String, GalleonFeaturePackDescription> descriptions = new HashMap<>();
+        descriptions.put("org.foo:fp1", new GalleonFeaturePackDescription(fpid("org.producer:p1:1.0"),
+                Arrays.asList(fpid("org.foo:dep1:1.0")), Collections.emptyList(), "1.0"));
+        descriptions.put("org.foo:fp2", new GalleonFeaturePackDescription(fpid("org.producer:p2:1.0"),
+                Arrays.asList(fpid("org.foo:dep2:1.0")), Arrays.asList(fpid("org.foo:dep1:1.0")), "1.0"));
+        descriptions.put("org.foo:dep1", new GalleonFeaturePackDescription(fpid("org.producer:d1:1.0"),
+                Collections.emptyList(), Collections.emptyList(), "1.0"));
+        descriptions.put("org.foo:dep2", new GalleonFeaturePackDescription(fpid("org.producer:d2:1.0"),
+                Collections.emptyList(), Collections.emptyList(), "1.0"));
+        return descriptions;
+    }
+
+    private static GalleonProvisioningConfig config() throws Exception {
+        return GalleonProvisioningConfig.builder()
+                .addFeaturePackDep(FeaturePackLocation.fromString("org.foo:fp1:1.0"))
+                .addFeaturePackDep(FeaturePackLocation.fromString("org.foo:fp2:1.0"))
+                .build();
+    }
+
+    private static MavenUpgrade newUpgrade(int threads) throws Exception {
+        Map<String, GalleonFeaturePackDescription> descriptions = descriptions();
+        return new MavenUpgrade(new BuildBootableJarMojo(), null, null, config(), fp -> {
+            // The first feature-packs complete last when resolved concurrently.
+            try {
+                Thread.sleep(fp.getArtifactId().equals("fp1") || fp.getArtifactId().equals("dep1") ? 200 : 0);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ProvisioningException(ex);
+            }
+            return new MavenUpgrade.ResolvedFeaturePack(fp, Paths.get(fp.getArtifactId() + ".zip"),
+                    descriptions.get(fp.getGAC()));
+        }, threads);
+    }
+
+    private static void assertNoResolutionThread() throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        List<String> alive = new ArrayList<>();
+        do {
+            alive.clear();
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().startsWith(RESOLUTION_THREAD) && thread.isAlive()) {
+                    alive.add(thread.getName());
+                }
+            }
+            if (alive.isEmpty()) {
+                return;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        Assert.fail("Resolution threads not shut down " + alive);
+    }
+
+    @Test
+    public void testResolveAll() throws Exception {
+        MavenUpgrade sequential = newUpgrade(1);
+        MavenUpgrade concurrent = newUpgrade(8);
+        List<Path> expectedFiles = Arrays.asList(Paths.get("fp1.zip"), Paths.get("fp2.zip"), Paths.get("dep1.zip"),
+                Paths.get("dep2.zip"));
+        Assert.assertEquals(expectedFiles, sequential.getFeaturePackFiles());
+        Assert.assertEquals(sequential.getFeaturePackFiles(), concurrent.getFeaturePackFiles());
+        Map<String, String> expectedProducers = new HashMap<>();
+        expectedProducers.put("org.producer:p1:2.0", "org.foo:fp1:2.0");
+        expectedProducers.put("org.producer:p2:2.0", "org.foo:fp2:2.0");
+        expectedProducers.put("org.producer:d1:2.0", "org.foo:dep1:2.0");
+        expectedProducers.put("org.producer:d2:2.0", "org.foo:dep2:2.0");
+        for (Map.Entry<String, String> entry : expectedProducers.entrySet()) {
+            FPID producer = fpid(entry.getKey());
+            Assert.assertEquals(entry.getValue(), sequential.getMavenFeaturePack(producer));
+            Assert.assertEquals(sequential.getMavenFeaturePack(producer), concurrent.getMavenFeaturePack(producer));
+        }
+        assertNoResolutionThread();
+    }
+
+    @Test
+    public void testResolveAllFailure() throws Exception {
+        Map<String, GalleonFeaturePackDescription> descriptions = descriptions();
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ProvisioningException failure = new ProvisioningException("fp1 can't be resolved");
+        try {
+            new MavenUpgrade(new BuildBootableJarMojo(), null, null, config(), fp -> {
+                if (fp.getArtifactId().equals("fp1")) {
+                    throw failure;
+                }
+                // Blocks until the pool is shut down.
+                try {
+                    new CountDownLatch(1).await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    interrupted.set(true);
+                    blocked.countDown();
+                    throw new ProvisioningException(ex);
+                }
+                return new MavenUpgrade.ResolvedFeaturePack(fp, Paths.get(fp.getArtifactId() + ".zip"),
+                        descriptions.get(fp.getGAC()));
+            }, 8);
+            throw new Exception("Should have failed");
+        } catch (ProvisioningException ex) {
+            Assert.assertSame(failure, ex);
+        }
+        Assert.assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(interrupted.get());
+        assertNoResolutionThread();
+    }
 }
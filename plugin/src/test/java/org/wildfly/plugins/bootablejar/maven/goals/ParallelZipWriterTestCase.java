@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelZipWriterTestCase {
+
+    private static final long TIME = 1600000000000L;
+
+    private Path baseDir;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("parallel-zip-writer-");
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testContent() throws Exception {
+        Path largeFile = baseDir.resolve("large.bin");
+        Files.write(largeFile, content(6 * 1024 * 1024));
+        Path zipFile = baseDir.resolve("test.zip");
+        write(zipFile, largeFile, executor, 4);
+
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            Assert.assertTrue(zip.getEntry("dir/").isDirectory());
+            Assert.assertEquals("small", new String(read(zip, "dir/small.txt"), StandardCharsets.UTF_8));
+            Assert.assertEquals("", new String(read(zip, "empty.txt"), StandardCharsets.UTF_8));
+            Assert.assertArrayEquals(Files.readAllBytes(largeFile), read(zip, "large.bin"));
+            Assert.assertArrayEquals(content(1024 * 1024 + 7), read(zip, "streamed.bin"));
+            Assert.assertEquals(TIME / 2000, zip.getEntry("dir/small.txt").getTime() / 2000);
+        }
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipFile))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        Assert.assertEquals(5, entries.size());
+        Assert.assertArrayEquals(content(1024 * 1024 + 7), entries.get("streamed.bin"));
+    }
+
+    @Test
+    public void testDeterministic() throws Exception {
+        Path largeFile = baseDir.resolve("large.bin");
+        Files.write(largeFile, content(6 * 1024 * 1024));
+        Path parallel = baseDir.resolve("parallel.zip");
+        Path sequential = baseDir.resolve("sequential.zip");
+        write(parallel, largeFile, executor, 4);
+        write(sequential, largeFile, null, 1);
+        Assert.assertTrue(Arrays.equals(Files.readAllBytes(sequential), Files.readAllBytes(parallel)));
+    }
+
+    @Test
+    public void testStoreArchives() throws Exception {
+        Path largeFile = baseDir.resolve("large.jar");
+        Files.write(largeFile, content(5 * 1024 * 1024));
+        Path zipFile = baseDir.resolve("stored.zip");
+        try (ParallelZipWriter writer = new ParallelZipWriter(FileChannel.open(zipFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE), executor, 4, CompressionPolicy.STORE_ARCHIVES, 9)) {
+            writer.addEntry("module.xml", TIME, "<module/>".getBytes(StandardCharsets.UTF_8));
+            writer.addEntry("small.jar", TIME, content(1024));
+            writer.addFile("large.jar", TIME, largeFile);
+            try (OutputStream out = writer.openEntry("nested.zip", TIME)) {
+                out.write(content(300 * 1024));
+            }
+        }
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            Assert.assertEquals(ZipEntry.DEFLATED, zip.getEntry("module.xml").getMethod());
+            Assert.assertEquals(ZipEntry.STORED, zip.getEntry("small.jar").getMethod());
+            Assert.assertEquals(ZipEntry.STORED, zip.getEntry("large.jar").getMethod());
+            Assert.assertEquals(ZipEntry.STORED, zip.getEntry("nested.zip").getMethod());
+            Assert.assertArrayEquals(content(1024), read(zip, "small.jar"));
+            Assert.assertArrayEquals(Files.readAllBytes(largeFile), read(zip, "large.jar"));
+        }
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipFile))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        Assert.assertEquals("<module/>", new String(entries.get("module.xml"), StandardCharsets.UTF_8));
+        Assert.assertArrayEquals(content(300 * 1024), entries.get("nested.zip"));
+    }
+
+    @Test
+    public void testStoredDataDescriptor() throws Exception {
+        // Without a file channel, a streamed entry can't be stored, its sizes are only known once it is written and
+        // ZipInputStream doesn't support stored entries followed by a data descriptor.
+        Path streamZip = baseDir.resolve("stream.zip");
+        try (ParallelZipWriter writer = new ParallelZipWriter(Files.newOutputStream(streamZip), executor, 4,
+                CompressionPolicy.STORE_ARCHIVES, 9)) {
+            writer.addEntry("small.jar", TIME, content(1024));
+            try (OutputStream out = writer.openEntry("nested.zip", TIME)) {
+                out.write(content(300 * 1024));
+            }
+            writer.addEntry("after.jar", TIME, content(2048));
+        }
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(streamZip))) {
+            assertStoredEntry(zip, "small.jar", content(1024));
+            assertDataDescriptorEntry(zip, "nested.zip", content(300 * 1024));
+            assertStoredEntry(zip, "after.jar", content(2048));
+            Assert.assertNull(zip.getNextEntry());
+        }
+
+        // With a file channel, the local header of the streamed entry is updated, no data descriptor is written.
+        Path channelZip = baseDir.resolve("channel.zip");
+        try (ParallelZipWriter writer = new ParallelZipWriter(FileChannel.open(channelZip, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE), executor, 4, CompressionPolicy.STORE_ARCHIVES, 9)) {
+            try (OutputStream out = writer.openEntry("nested.zip", TIME)) {
+                out.write(content(300 * 1024));
+            }
+            writer.openEntry("empty.jar", TIME).close();
+            writer.addEntry("after.jar", TIME, content(2048));
+        }
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(channelZip))) {
+            assertStoredEntry(zip, "nested.zip", content(300 * 1024));
+            assertStoredEntry(zip, "empty.jar", new byte[0]);
+            assertStoredEntry(zip, "after.jar", content(2048));
+            Assert.assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testDeflatedDataDescriptor() throws Exception {
+        Path largeFile = baseDir.resolve("large.bin");
+        Files.write(largeFile, content(6 * 1024 * 1024));
+        Path zipFile = baseDir.resolve("test.zip");
+        try (ParallelZipWriter writer = new ParallelZipWriter(Files.newOutputStream(zipFile), executor, 4,
+                CompressionPolicy.DEFLATE, Deflater.DEFAULT_COMPRESSION)) {
+            // Streamed entries, in a single block, in several blocks, empty and from a large file.
+            try (OutputStream out = writer.openEntry("single.bin", TIME)) {
+                out.write(content(1000));
+            }
+            try (OutputStream out = writer.openEntry("blocks.bin", TIME)) {
+                for (int i = 0; i < 10; i++) {
+                    out.write(content(100 * 1024 + i));
+                }
+            }
+            writer.openEntry("empty.bin", TIME).close();
+            writer.addFile("large.bin", TIME, largeFile);
+            writer.addEntry("after.txt", TIME, "after".getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        for (int i = 0; i < 10; i++) {
+            blocks.write(content(100 * 1024 + i));
+        }
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipFile))) {
+            assertDataDescriptorEntry(zip, "single.bin", content(1000));
+            assertDataDescriptorEntry(zip, "blocks.bin", blocks.toByteArray());
+            assertDataDescriptorEntry(zip, "empty.bin", new byte[0]);
+            assertDataDescriptorEntry(zip, "large.bin", Files.readAllBytes(largeFile));
+            ZipEntry entry = zip.getNextEntry();
+            Assert.assertEquals("after.txt", entry.getName());
+            Assert.assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+            Assert.assertEquals(5, entry.getSize());
+            Assert.assertEquals("after", new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            Assert.assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testZip64EntryCount() throws Exception {
+        // More entries than the end of central directory record can count.
+        int count = 70000;
+        Path zipFile = baseDir.resolve("zip64.zip");
+        try (ParallelZipWriter writer = new ParallelZipWriter(Files.newOutputStream(zipFile), executor, 4,
+                CompressionPolicy.DEFLATE, Deflater.DEFAULT_COMPRESSION)) {
+            for (int i = 0; i < count; i++) {
+                writer.addEntry("entry-" + i + ".txt", TIME, Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+            }
+            try (OutputStream out = writer.openEntry("streamed.bin", TIME)) {
+                out.write(content(1000));
+            }
+        }
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipFile))) {
+            for (int i = 0; i < count; i++) {
+                ZipEntry entry = zip.getNextEntry();
+                Assert.assertEquals("entry-" + i + ".txt", entry.getName());
+                Assert.assertEquals(Integer.toString(i), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertDataDescriptorEntry(zip, "streamed.bin", content(1000));
+            Assert.assertNull(zip.getNextEntry());
+        }
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            Assert.assertEquals(count + 1, zip.size());
+            Assert.assertEquals("69999", new String(read(zip, "entry-69999.txt"), StandardCharsets.UTF_8));
+            Assert.assertArrayEquals(content(1000), read(zip, "streamed.bin"));
+        }
+        // The zip64 end of central directory locator precedes the end of central directory record.
+        byte[] bytes = Files.readAllBytes(zipFile);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(0x06054b50, buffer.getInt(bytes.length - 22));
+        Assert.assertEquals(0xFFFF, buffer.getShort(bytes.length - 22 + 10) & 0xFFFF);
+        Assert.assertEquals(0x07064b50, buffer.getInt(bytes.length - 22 - 20));
+        int zip64End = (int) buffer.getLong(bytes.length - 22 - 20 + 8);
+        Assert.assertEquals(0x06064b50, buffer.getInt(zip64End));
+        Assert.assertEquals(count + 1, buffer.getLong(zip64End + 32));
+    }
+
+    private static void assertStoredEntry(ZipInputStream zip, String name, byte[] content) throws IOException {
+        ZipEntry entry = zip.getNextEntry();
+        Assert.assertNotNull(name, entry);
+        Assert.assertEquals(name, entry.getName());
+        Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+        // The sizes and the checksum are known from the local header.
+        Assert.assertEquals(content.length, entry.getSize());
+        Assert.assertEquals(content.length, entry.getCompressedSize());
+        Assert.assertEquals(crc(content), entry.getCrc());
+        Assert.assertArrayEquals(content, zip.readAllBytes());
+    }
+
+    private static void assertDataDescriptorEntry(ZipInputStream zip, String name, byte[] content) throws IOException {
+        ZipEntry entry = zip.getNextEntry();
+        Assert.assertNotNull(name, entry);
+        Assert.assertEquals(name, entry.getName());
+        Assert.assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+        Assert.assertArrayEquals(content, zip.readAllBytes());
+        // The sizes and the checksum are read from the data descriptor once the content has been read.
+        Assert.assertEquals(content.length, entry.getSize());
+        Assert.assertTrue(entry.getCompressedSize() > 0);
+        Assert.assertEquals(crc(content), entry.getCrc());
+    }
+
+    private static long crc(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static void write(Path zipFile, Path largeFile, ExecutorService executor, int threads) throws IOException {
+        try (ParallelZipWriter writer = new ParallelZipWriter(Files.newOutputStream(zipFile), executor, threads,
+                CompressionPolicy.DEFLATE, Deflater.DEFAULT_COMPRESSION)) {
+            writer.addDirectory("dir", TIME);
+            writer.addEntry("dir/small.txt", TIME, "small".getBytes(StandardCharsets.UTF_8));
+            writer.addEntry("empty.txt", TIME, new byte[0]);
+            writer.addFile("large.bin", TIME, largeFile);
+            try (OutputStream out = writer.openEntry("streamed.bin", TIME)) {
+                out.write(content(1024 * 1024 + 7));
+            }
+        }
+    }
+
+    private static byte[] content(int size) {
+        // Partly compressible content.
+        byte[] content = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i % 3 == 0 ? random.nextInt() : i % 17);
+        }
+        return content;
+    }
+
+    private static byte[] read(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        Assert.assertNotNull(name, entry);
+        try (InputStream in = zip.getInputStream(entry)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.plugin.tools.bootablejar.ScannedArtifacts;
+
+public class ProvisioningCacheTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("provisioning-cache-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testStoreRestore() throws Exception {
+        Path config = baseDir.resolve("provisioning.xml");
+        Files.write(config, "<installation/>".getBytes(StandardCharsets.UTF_8));
+        String key = ProvisioningCache.computeKey(config, "1.0.0.Final", "false");
+        Assert.assertEquals(key, ProvisioningCache.computeKey(config, "1.0.0.Final", "false"));
+        Assert.assertNotEquals(key, ProvisioningCache.computeKey(config, "1.0.1.Final", "false"));
+        // A local feature-pack rebuilt with the same version.
+        Path fp = baseDir.resolve("fp.zip");
+        Files.write(fp, "content".getBytes(StandardCharsets.UTF_8));
+        String localKey = ProvisioningCache.computeKey(config, Collections.singletonList(fp), "1.0.0.Final", "false");
+        Assert.assertNotEquals(key, localKey);
+        Assert.assertEquals(localKey, ProvisioningCache.computeKey(config, Collections.singletonList(fp), "1.0.0.Final", "false"));
+        Files.write(fp, "rebuilt".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNotEquals(localKey, ProvisioningCache.computeKey(config, Collections.singletonList(fp), "1.0.0.Final", "false"));
+
+        Path home = baseDir.resolve("wildfly");
+        Files.createDirectories(home.resolve("standalone").resolve("configuration"));
+        Files.write(home.resolve("standalone").resolve("configuration").resolve("standalone.xml"),
+                "<server/>".getBytes(StandardCharsets.UTF_8));
+        Set<MavenArtifact> cli = new LinkedHashSet<>();
+        cli.add(MavenArtifact.fromString("org.wildfly.core:wildfly-cli:jar:client:1.0"));
+        ScannedArtifacts scanned = new ScannedArtifacts(MavenArtifact.fromString("org.wildfly.core:wildfly-jar-boot:1.0"),
+                MavenArtifact.fromString("org.jboss.modules:jboss-modules:2.0"), cli);
+
+        ProvisioningCache cache = new ProvisioningCache(baseDir.resolve("cache"), new SystemStreamLog());
+        Path restoredHome = baseDir.resolve("restored");
+        Assert.assertNull(cache.restore(key, restoredHome));
+        cache.store(key, home, scanned);
+
+        ScannedArtifacts restored = cache.restore(key, restoredHome);
+        Assert.assertNotNull(restored);
+        Assert.assertEquals("org.wildfly.core:wildfly-jar-boot:jar:1.0", restored.getBoot().getCoordsAsString());
+        Assert.assertEquals("org.jboss.modules:jboss-modules:jar:2.0", restored.getJbossModules().getCoordsAsString());
+        Assert.assertEquals(1, restored.getCliArtifacts().size());
+        Assert.assertEquals("org.wildfly.core:wildfly-cli:jar:client:1.0",
+                restored.getCliArtifacts().iterator().next().getCoordsAsString());
+        Assert.assertEquals("<server/>", new String(Files.readAllBytes(restoredHome.resolve("standalone")
+                .resolve("configuration").resolve("standalone.xml")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLinkModuleArtifacts() throws Exception {
+        Path home = baseDir.resolve("wildfly");
+        Path moduleJar = home.resolve("modules").resolve("system").resolve("layers").resolve("base").resolve("org")
+                .resolve("foo").resolve("main").resolve("foo-1.0.jar");
+        Files.createDirectories(moduleJar.getParent());
+        Files.write(moduleJar, "jar".getBytes(StandardCharsets.UTF_8));
+        Files.write(moduleJar.resolveSibling("module.xml"), "<module/>".getBytes(StandardCharsets.UTF_8));
+        Path jbossModules = home.resolve("jboss-modules.jar");
+        Files.write(jbossModules, "jar".getBytes(StandardCharsets.UTF_8));
+        ScannedArtifacts scanned = new ScannedArtifacts(MavenArtifact.fromString("org.wildfly.core:wildfly-jar-boot:1.0"),
+                MavenArtifact.fromString("org.jboss.modules:jboss-modules:2.0"), new LinkedHashSet<>());
+
+        ProvisioningCache cache = new ProvisioningCache(baseDir.resolve("cache"), new SystemStreamLog(), true);
+        cache.store("key", home, scanned);
+        Path restoredHome = baseDir.resolve("restored");
+        Assert.assertNotNull(cache.restore("key", restoredHome));
+        Path restoredJar = restoredHome.resolve(home.relativize(moduleJar).toString());
+        Assert.assertEquals("jar", new String(Files.readAllBytes(restoredJar), StandardCharsets.UTF_8));
+        Assert.assertTrue(Files.exists(restoredJar.resolveSibling("module.xml")));
+        if (cache.getLinked() == 0) {
+            // Hard links not supported by the file system, copied.
+            Assert.assertFalse(Files.isSameFile(moduleJar, restoredJar));
+            return;
+        }
+        Assert.assertEquals(2, cache.getLinked());
+        Assert.assertTrue(Files.isSameFile(moduleJar, restoredJar));
+        Assert.assertFalse(Files.isSameFile(moduleJar.resolveSibling("module.xml"), restoredJar.resolveSibling("module.xml")));
+        // Only the JAR files of the modules are linked.
+        Assert.assertFalse(Files.isSameFile(jbossModules, restoredHome.resolve("jboss-modules.jar")));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        Path home = baseDir.resolve("wildfly");
+        Files.createDirectories(home);
+        ScannedArtifacts scanned = new ScannedArtifacts(MavenArtifact.fromString("org.wildfly.core:wildfly-jar-boot:1.0"),
+                MavenArtifact.fromString("org.jboss.modules:jboss-modules:2.0"), new LinkedHashSet<>());
+        Path cacheDir = baseDir.resolve("cache");
+        ProvisioningCache cache = new ProvisioningCache(cacheDir, new SystemStreamLog());
+        for (int i = 0; i < 8; i++) {
+            cache.store("key" + i, home, scanned);
+        }
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            Assert.assertEquals(5, entries.count());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResolutionMetricsTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("resolution-metrics-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        Path repository = baseDir.resolve("repository");
+        Files.createDirectories(repository);
+        Path local = repository.resolve("local.jar");
+        Files.write(local, "local".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(local, FileTime.fromMillis(System.currentTimeMillis() - 3600000));
+        MavenRepoManager manager = (MavenRepoManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MavenRepoManager.class}, (proxy, method, args) -> {
+                    if (!"resolve".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    MavenArtifact artifact = (MavenArtifact) args[0];
+                    switch (artifact.getArtifactId()) {
+                        case "local":
+                            artifact.setPath(local);
+                            break;
+                        case "remote":
+                            // Slower than the local one.
+                            Thread.sleep(20);
+                            Path remote = repository.resolve("remote.jar");
+                            Files.write(remote, "downloaded".getBytes(StandardCharsets.UTF_8));
+                            artifact.setPath(remote);
+                            break;
+                        default:
+                            throw new MavenUniverseException("Not found " + artifact.getArtifactId());
+                    }
+                    return null;
+                });
+        ResolutionMetrics metrics = ResolutionMetrics.wrap(manager);
+        metrics.resolve(newArtifact("local"));
+        metrics.resolve(newArtifact("local"));
+        metrics.resolve(newArtifact("remote"));
+        try {
+            metrics.resolve(newArtifact("missing"));
+            Assert.fail("Resolution should have failed");
+        } catch (MavenUniverseException ex) {
+            // Expected.
+        }
+
+        List<ResolutionMetrics.Resolution> resolutions = metrics.getResolutions();
+        Assert.assertEquals(3, resolutions.size());
+        Assert.assertEquals("org.foo:remote:jar:1.0", resolutions.get(0).getArtifact());
+        Assert.assertEquals(ResolutionMetrics.DOWNLOADED, resolutions.get(0).getSource());
+        Assert.assertEquals(10, resolutions.get(0).getBytes());
+        ResolutionMetrics.Resolution localResolution = resolutions.stream()
+                .filter(r -> r.getArtifact().equals("org.foo:local:jar:1.0")).findFirst().get();
+        Assert.assertEquals(ResolutionMetrics.LOCAL, localResolution.getSource());
+        Assert.assertEquals(2, localResolution.getCalls());
+        Assert.assertTrue(resolutions.stream().anyMatch(r -> r.getSource().equals(ResolutionMetrics.FAILED)));
+
+        Path report = baseDir.resolve("report.txt");
+        String summary = metrics.writeReport(report);
+        Assert.assertTrue(summary, summary.startsWith("3 artifacts resolved in "));
+        Assert.assertTrue(summary, summary.contains("1 from the local repository, 1 downloaded (0 KB), 0 using the original version, 1 failed"));
+        List<String> lines = Files.readAllLines(report);
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.get(1), lines.get(1).endsWith(" 1 10 downloaded org.foo:remote:jar:1.0"));
+    }
+
+    private static MavenArtifact newArtifact(String artifactId) {
+        MavenArtifact artifact = new MavenArtifact();
+        artifact.setGroupId("org.foo");
+        artifact.setArtifactId(artifactId);
+        artifact.setVersion("1.0");
+        artifact.setExtension("jar");
+        return artifact;
+    }
+}
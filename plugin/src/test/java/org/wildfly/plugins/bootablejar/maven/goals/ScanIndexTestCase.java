@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.plugin.tools.bootablejar.ScannedArtifacts;
+
+public class ScanIndexTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("scan-index-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        Path config = write("provisioning.xml", "<installation/>");
+        Path fp = write("wildfly-galleon-pack-1.0.zip", "content");
+        String key = ScanIndex.computeKey(config, Collections.singletonList(fp), "1.0", "modules");
+        Assert.assertEquals(key, ScanIndex.computeKey(config, Collections.singletonList(fp), "1.0", "modules"));
+        Assert.assertNotEquals(key, ScanIndex.computeKey(config, Collections.singletonList(fp), "1.0", "artifacts"));
+        write("wildfly-galleon-pack-1.0.zip", "new content");
+        Assert.assertNotEquals(key, ScanIndex.computeKey(config, Collections.singletonList(fp), "1.0", "modules"));
+    }
+
+    @Test
+    public void testModules() throws Exception {
+        ScanIndex index = new ScanIndex(baseDir.resolve("index"), new SystemStreamLog());
+        Assert.assertNull(index.readModules("key"));
+
+        Map<String, Map<String, String>> perModule = new TreeMap<>();
+        Map<String, String> artifacts = new TreeMap<>();
+        artifacts.put("org.foo:foo", "org.foo:foo:1.0::jar");
+        artifacts.put("org.foo:unknown", null);
+        perModule.put("org.foo", artifacts);
+        perModule.put("org.bar", Collections.singletonMap("org.bar:bar", "org.bar:bar:2.0::jar"));
+        Map<String, String> copied = new HashMap<>();
+        copied.put("org.foo:tool", "org.foo:tool:1.0::jar");
+        index.writeModules("key", new ScannedModules(perModule, ScannedModules.MODULE_RUNTIME_KEY,
+                "org.jboss.modules:jboss-modules:2.0::jar", copied));
+
+        ScannedModules modules = index.readModules("key");
+        Assert.assertNotNull(modules);
+        Assert.assertEquals(perModule, modules.getPerModuleArtifacts());
+        Assert.assertTrue(modules.getPerModuleArtifacts().get("org.foo").containsKey("org.foo:unknown"));
+        Assert.assertEquals(copied, modules.getCopiedArtifacts());
+        Assert.assertEquals("org.jboss.modules:jboss-modules:2.0::jar", modules.getModuleRuntime());
+    }
+
+    @Test
+    public void testArtifacts() throws Exception {
+        ScanIndex index = new ScanIndex(baseDir.resolve("index"), new SystemStreamLog());
+        Assert.assertNull(index.readArtifacts("key"));
+        index.writeArtifacts("key", new ScannedArtifacts(MavenArtifact.fromString("org.wildfly.core:wildfly-jar-boot:1.0"),
+                MavenArtifact.fromString("org.jboss.modules:jboss-modules:2.0"), Collections.emptySet()));
+        ScannedArtifacts scanned = index.readArtifacts("key");
+        Assert.assertNotNull(scanned);
+        Assert.assertEquals("org.wildfly.core:wildfly-jar-boot:jar:1.0", scanned.getBoot().getCoordsAsString());
+        Assert.assertEquals("org.jboss.modules:jboss-modules:jar:2.0", scanned.getJbossModules().getCoordsAsString());
+        Assert.assertTrue(scanned.getCliArtifacts().isEmpty());
+        Assert.assertNull(index.readModules("key"));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = baseDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
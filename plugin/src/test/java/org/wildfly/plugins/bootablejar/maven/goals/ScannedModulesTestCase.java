@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScannedModulesTestCase {
+
+    private Path baseDir;
+
+    @Before
+    public void setup() throws IOException {
+        baseDir = Files.createTempDirectory("scanned-modules-");
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(baseDir);
+    }
+
+    @Test
+    public void testModuleTemplate() throws Exception {
+        Path template = write("module.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<module name=\"org.foo\" xmlns=\"urn:jboss:module:1.9\">\n"
+                + "    <properties>\n"
+                + "        <property name=\"jboss.api\" value=\"private\"/>\n"
+                + "    </properties>\n"
+                + "    <resources>\n"
+                + "        <artifact name=\"${org.foo:foo}\"/>\n"
+                + "        <resource-root path=\"foo.jar\"/>\n"
+                + "        <artifact name=\"org.foo:bar:1.0\"/>\n"
+                + "        <artifact name=\"${org.foo:foo-impl}\">\n"
+                + "            <filter><exclude path=\"META-INF\"/></filter>\n"
+                + "        </artifact>\n"
+                + "    </resources>\n"
+                + "    <dependencies>\n"
+                + "        <module name=\"org.bar\"/>\n"
+                + "    </dependencies>\n"
+                + "</module>\n");
+        Assert.assertEquals(Arrays.asList("org.foo:foo", "org.foo:foo-impl"), ScannedModules.readModuleArtifacts(template));
+
+        Path noResources = write("module2.xml", "<module name=\"org.bar\" xmlns=\"urn:jboss:module:1.9\">\n"
+                + "    <dependencies><artifact name=\"${org.bar:bar}\"/></dependencies>\n"
+                + "</module>\n");
+        Assert.assertTrue(ScannedModules.readModuleArtifacts(noResources).isEmpty());
+    }
+
+    @Test
+    public void testTasks() throws Exception {
+        Path tasks = write("tasks.xml", "<?xml version=\"1.0\" ?>\n"
+                + "<tasks xmlns=\"urn:wildfly:wildfly-feature-pack-tasks:3.1\">\n"
+                + "    <copy-artifact artifact=\"org.foo:foo\" to-location=\"bin/foo.jar\"/>\n"
+                + "    <copy-artifact artifact=\"org.foo:optional\" to-location=\"bin/opt.jar\" optional=\"true\"/>\n"
+                + "    <copy-artifact artifact=\"org.foo:missing\" to-location=\"bin/missing.jar\"/>\n"
+                + "    <mkdir name=\"standalone/lib\"/>\n"
+                + "</tasks>\n");
+        Map<String, String> props = new HashMap<>();
+        props.put("org.foo:foo", "org.foo:foo:1.0::jar");
+        Map<String, String> artifacts = new HashMap<>();
+        ScannedModules.readTasks(tasks, props, artifacts);
+        Map<String, String> expected = new HashMap<>();
+        expected.put("org.foo:foo", "org.foo:foo:1.0::jar");
+        expected.put("org.foo:optional", "org.foo:optional:unknown::jar");
+        Assert.assertEquals(expected, artifacts);
+    }
+
+    @Test
+    public void testShadedArtifacts() throws Exception {
+        Path model = write("shaded-model.xml", "<?xml version=\"1.0\" ?>\n"
+                + "<shaded-model>\n"
+                + "    <dependencies>\n"
+                + "        <dependency>org.foo:foo:::jar</dependency>\n"
+                + "        <dependency>org.foo:bar::impl:jar</dependency>\n"
+                + "    </dependencies>\n"
+                + "</shaded-model>\n");
+        Map<String, String> props = new HashMap<>();
+        props.put("org.foo:foo", "org.foo:foo:1.0::jar");
+        props.put("org.foo:bar::impl", "org.foo:bar:2.0:impl:jar");
+        List<MavenArtifact> artifacts = ScannedModules.readShadedArtifacts(model, props);
+        Assert.assertEquals(2, artifacts.size());
+        Assert.assertEquals("org.foo:foo:jar:1.0", artifacts.get(0).getCoordsAsString());
+        Assert.assertEquals("org.foo:bar:jar:impl:2.0", artifacts.get(1).getCoordsAsString());
+
+        props.remove("org.foo:bar::impl");
+        try {
+            ScannedModules.readShadedArtifacts(model, props);
+            Assert.fail("Missing version should fail");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage().contains("org.foo:bar::impl"));
+        }
+    }
+
+    @Test
+    public void testScanAll() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+        List<String> results = ScannedModules.scanAll(items, i -> "item" + i);
+        Assert.assertEquals(items.size(), results.size());
+        for (int i = 0; i < items.size(); i++) {
+            Assert.assertEquals("item" + i, results.get(i));
+        }
+        try {
+            ScannedModules.scanAll(items, i -> {
+                if (i == 500) {
+                    throw new ProvisioningException("error " + i);
+                }
+                return i;
+            });
+            Assert.fail("Scan should have failed");
+        } catch (ProvisioningException ex) {
+            Assert.assertEquals("error 500", ex.getMessage());
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = baseDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jboss.galleon.api.GalleonProvisioningRuntime;
+import org.jboss.galleon.api.Provisioning;
+import org.jboss.galleon.api.config.GalleonFeaturePackConfig;
+import org.jboss.galleon.api.config.GalleonProvisioningConfig;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SharedProvisioningRuntimeTestCase {
+
+    private final AtomicInteger built = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @Test
+    public void testSharedRuntime() throws Exception {
+        GalleonProvisioningConfig config = config("org.foo:foo:1.0");
+        try (SharedProvisioningRuntime shared = new SharedProvisioningRuntime(provisioning())) {
+            GalleonProvisioningRuntime rt = shared.getRuntime(config);
+            Assert.assertTrue(rt.hasFeaturePacks());
+            Assert.assertSame(rt, shared.getRuntime(config("org.foo:foo:1.0")));
+            Assert.assertEquals(1, built.get());
+            Assert.assertEquals(0, closed.get());
+
+            // A new configuration closes the previous runtime.
+            Assert.assertNotSame(rt, shared.getRuntime(config("org.foo:foo:2.0")));
+            Assert.assertEquals(2, built.get());
+            Assert.assertEquals(1, closed.get());
+            Assert.assertEquals(2, shared.getBuilds());
+        }
+        Assert.assertEquals(2, closed.get());
+    }
+
+    private static GalleonProvisioningConfig config(String fpl) throws Exception {
+        return GalleonProvisioningConfig.builder()
+                .addFeaturePackDep(GalleonFeaturePackConfig.builder(FeaturePackLocation.fromString(fpl)).build())
+                .build();
+    }
+
+    private Provisioning provisioning() {
+        return (Provisioning) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Provisioning.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getProvisioningRuntime":
+                            built.incrementAndGet();
+                            return runtime();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private GalleonProvisioningRuntime runtime() {
+        return (GalleonProvisioningRuntime) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{GalleonProvisioningRuntime.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hasFeaturePacks":
+                            return true;
+                        case "close":
+                            closed.incrementAndGet();
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.repository.LocalRepository;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChannelMirrorTestCase extends AbstractBootableJarMojoTestCase {
+
+    public ChannelMirrorTestCase() {
+        super("channels", true, null);
+    }
+
+    @Test
+    public void testOfflinePackage() throws Exception {
+        final Path dir = getTestDir();
+        Path mirror = dir.resolve("target").resolve("mirror");
+        ChannelMirrorMojo mirrorMojo = lookupMojo("channel-mirror");
+        ChannelsTestCase.setupTestChannel(mirrorMojo);
+        mirrorMojo.mirrorDirectory = mirror.toFile();
+        mirrorMojo.execute();
+        Assert.assertTrue(Files.exists(mirror.resolve("org").resolve("wildfly").resolve("wildfly-galleon-pack")));
+        Assert.assertTrue(Files.exists(mirror.resolve("org").resolve("wildfly").resolve("wildfly-datasources-galleon-pack")));
+        Assert.assertTrue(Files.exists(mirror.resolve("org").resolve("jboss").resolve("modules").resolve("jboss-modules")));
+        try (Stream<Path> content = Files.list(dir.resolve("target"))) {
+            Assert.assertFalse(content.anyMatch(p -> p.getFileName().toString().startsWith("bootable-jar-channel-mirror-")));
+        }
+        Assert.assertFalse(Files.exists(dir.resolve("target").resolve(TEST_FILE)));
+
+        // The mirror is the only source of artifacts.
+        BuildBootableJarMojo mojo = lookupMojo("package");
+        ChannelsTestCase.setupTestChannel(mojo);
+        DefaultRepositorySystemSession offlineSession = new DefaultRepositorySystemSession(mojo.repoSession);
+        offlineSession.setLocalRepositoryManager(mojo.repoSystem.newLocalRepositoryManager(offlineSession,
+                new LocalRepository(mirror.toFile())));
+        offlineSession.setOffline(true);
+        mojo.repoSession = offlineSession;
+        mojo.offline = true;
+        mojo.execute();
+        Path unzippedJar = checkAndGetWildFlyHome(dir, false, true, null, null, false);
+        try {
+            Path modulesDir = unzippedJar.resolve("modules").resolve("org").resolve("postgresql").resolve("jdbc").resolve("main");
+            Assert.assertTrue(modulesDir.toString(), Files.exists(modulesDir));
+        } finally {
+            BuildBootableJarMojo.deleteDir(unzippedJar);
+        }
+    }
+}
@@ -22,6 +22,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.jboss.galleon.universe.maven.MavenArtifact;
 import org.wildfly.plugins.bootablejar.maven.common.OverriddenArtifact;
@@ -29,6 +31,9 @@ import org.wildfly.plugins.bootablejar.maven.common.OverriddenArtifact;
 import org.junit.Assert;
 import org.junit.Test;
 import org.wildfly.channel.ChannelManifestCoordinate;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.Stream;
+import org.wildfly.prospero.metadata.ProsperoMetadataUtils;
 
 /**
  * @author jdenise
@@ -54,7 +59,41 @@ public class ChannelsTestCase extends AbstractBootableJarMojoTestCase {
         }
     }
 
-    private void generateChannel(List<MavenArtifact> artifacts, Path file) throws IOException {
+    @Test
+    public void testPrefetchManifest() throws Exception {
+        BuildBootableJarMojo mojo = lookupMojo("package");
+        setupTestChannel(mojo);
+        mojo.execute();
+        Set<String> streams = readManifest();
+
+        BuildBootableJarMojo prefetch = lookupMojo("package");
+        setupTestChannel(prefetch);
+        prefetch.artifactPrefetch = true;
+        prefetch.execute();
+        // The prefetch doesn't change the installation manifest of the server.
+        Set<String> prefetchStreams = readManifest();
+        Assert.assertEquals(streams, prefetchStreams);
+        for (String stream : prefetchStreams) {
+            Assert.assertFalse(stream, stream.contains(":wildfly-jar-boot:"));
+        }
+    }
+
+    private Set<String> readManifest() throws Exception {
+        Path unzippedJar = checkAndGetWildFlyHome(getTestDir(), false, true, null, null, false);
+        try {
+            Path manifest = ProsperoMetadataUtils.manifestPath(unzippedJar);
+            Assert.assertTrue(manifest.toString(), Files.exists(manifest));
+            Set<String> streams = new TreeSet<>();
+            for (Stream stream : ChannelManifestMapper.from(manifest.toUri().toURL()).getStreams()) {
+                streams.add(stream.getGroupId() + ":" + stream.getArtifactId() + ":" + stream.getVersion());
+            }
+            return streams;
+        } finally {
+            BuildBootableJarMojo.deleteDir(unzippedJar);
+        }
+    }
+
+    private static void generateChannel(List<MavenArtifact> artifacts, Path file) throws IOException {
         StringBuilder channel = new StringBuilder();
         channel.append("schemaVersion: \"1.0.0\"").append(System.lineSeparator());
         channel.append("name: Test Channel").append(System.lineSeparator());
@@ -68,7 +107,7 @@ public class ChannelsTestCase extends AbstractBootableJarMojoTestCase {
         Files.write(file, channel.toString().getBytes());
     }
 
-    private void setupTestChannel(BuildBootableJarMojo mojo) throws IOException {
+    static void setupTestChannel(BuildBootableJarMojo mojo) throws IOException {
         List<MavenArtifact> artifacts = new ArrayList<>();
         MavenArtifact ds = new MavenArtifact();
         ds.setGroupId("org.wildfly");
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.plugins.bootablejar.maven.goals;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ReuseCLIProcessTestCase extends AbstractBootableJarMojoTestCase {
+
+    public ReuseCLIProcessTestCase() {
+        super("test2-pom.xml", true, "provisioning1.xml", "add-prop.cli", "add-prop2.cli");
+    }
+
+    private static List<Long> getWorkers() {
+        return ProcessHandle.current().children()
+                .filter(p -> p.info().commandLine().map(c -> c.contains("CLIWorkerProcess")).orElse(false))
+                .map(ProcessHandle::pid)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEmbeddedServerBootedTwice() throws Exception {
+        String[] layers = {"jaxrs", "management"};
+        final Path dir = getTestDir();
+        BuildBootableJarMojo mojo = lookupMojo("package");
+        assertNotNull(mojo);
+        mojo.reuseCliProcess = true;
+        mojo.execute();
+        checkJar(dir, true, true, layers, null, false, "foobootable", "foobootable2");
+        List<Long> workers = getWorkers();
+        assertEquals(workers.toString(), 1, workers.size());
+
+        // The same build, the embedded server is booted again in the same worker.
+        BuildBootableJarMojo other = lookupMojo("package");
+        other.session = mojo.session;
+        other.reuseCliProcess = true;
+        other.execute();
+        checkJar(dir, true, true, layers, null, false, "foobootable", "foobootable2");
+        checkDeployment(dir, true);
+        assertEquals(workers, getWorkers());
+    }
+}